@@ -0,0 +1,76 @@
+package com.example.gamestore.config;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+/**
+ * Makes sure {@code cart_items} has the unique (cart_id, game_id) constraint that the cart
+ * upsert's {@code ON CONFLICT} clause relies on. The schema update skips the constraint with
+ * only a warning when duplicate lines already exist, so they are merged into the oldest line
+ * of each game, the affected cart totals recomputed, and the constraint added here.
+ */
+@Component
+@DependsOn("entityManagerFactory")
+@Slf4j
+public class CartItemUniquenessInitializer {
+
+    private static final String CONSTRAINT = "uk_cart_items_cart_game";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    public CartItemUniquenessInitializer(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @PostConstruct
+    public void ensureUniqueCartLines() {
+        if (constraintExists()) {
+            return;
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            // Another instance may be doing the same; the lock serializes us behind it
+            jdbcTemplate.execute("LOCK TABLE cart_items IN SHARE ROW EXCLUSIVE MODE");
+            if (constraintExists()) {
+                return;
+            }
+
+            List<Long> cartIds = jdbcTemplate.queryForList(
+                    "SELECT DISTINCT cart_id FROM cart_items GROUP BY cart_id, game_id HAVING COUNT(*) > 1",
+                    Long.class);
+            if (!cartIds.isEmpty()) {
+                jdbcTemplate.update("""
+                        UPDATE cart_items keep SET quantity = merged.quantity
+                        FROM (SELECT MIN(id) AS id, SUM(quantity) AS quantity
+                              FROM cart_items GROUP BY cart_id, game_id HAVING COUNT(*) > 1) merged
+                        WHERE keep.id = merged.id""");
+                int removed = jdbcTemplate.update("""
+                        DELETE FROM cart_items item USING cart_items keep
+                        WHERE item.cart_id = keep.cart_id AND item.game_id = keep.game_id AND item.id > keep.id""");
+                jdbcTemplate.batchUpdate("""
+                                UPDATE carts SET total_price = COALESCE(
+                                    (SELECT SUM(item.price * item.quantity) FROM cart_items item WHERE item.cart_id = carts.id), 0)
+                                WHERE id = ?""",
+                        cartIds.stream().map(cartId -> new Object[]{cartId}).toList());
+                log.warn("Merged {} duplicate cart lines in {} carts", removed, cartIds.size());
+            }
+
+            jdbcTemplate.execute("ALTER TABLE cart_items ADD CONSTRAINT " + CONSTRAINT + " UNIQUE (cart_id, game_id)");
+            log.info("Added constraint {} to cart_items", CONSTRAINT);
+        });
+    }
+
+    private boolean constraintExists() {
+        Integer count = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM pg_constraint WHERE conname = ?", Integer.class, CONSTRAINT);
+        return count != null && count > 0;
+    }
+}
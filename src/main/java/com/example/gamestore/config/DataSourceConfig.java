@@ -0,0 +1,97 @@
+package com.example.gamestore.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Two Hikari pools against the gamestore database: a read-write pool and a read-only pool.
+ * Both take the shared tuning under {@code spring.datasource.hikari}; the read-only pool can
+ * override it under {@code app.datasource.read-only.hikari}.
+ * <p>
+ * The primary {@link DataSource} hands out connections lazily, so by the time a statement
+ * runs the transaction has marked the connection read-only and
+ * {@code @Transactional(readOnly = true)} work is served from the read-only pool.
+ * <p>
+ * When replicas are listed under {@code app.datasource.replicas[n]}, read-only work goes to
+ * them instead, and the read-only pool on the primary becomes the fallback for lagging or
+ * unreachable replicas.
+ */
+@Configuration
+public class DataSourceConfig {
+
+    private static final String SHARED_POOL_PROPERTIES = "spring.datasource.hikari";
+    private static final String READ_ONLY_POOL_PROPERTIES = "app.datasource.read-only.hikari";
+    private static final String REPLICA_PROPERTIES = "app.datasource.replicas";
+
+    @Bean(destroyMethod = "close")
+    public HikariDataSource readWriteDataSource(DataSourceProperties properties, Environment environment) {
+        HikariDataSource dataSource = createPool(properties, environment);
+        dataSource.setPoolName("gamestore-rw");
+        return dataSource;
+    }
+
+    @Bean(destroyMethod = "close")
+    public HikariDataSource readOnlyDataSource(DataSourceProperties properties, Environment environment) {
+        HikariDataSource dataSource = createPool(properties, environment);
+        Binder.get(environment).bind(READ_ONLY_POOL_PROPERTIES, Bindable.ofInstance(dataSource));
+        dataSource.setPoolName("gamestore-ro");
+        dataSource.setReadOnly(true);
+        return dataSource;
+    }
+
+    @Bean
+    @ConditionalOnProperty(REPLICA_PROPERTIES + "[0].jdbc-url")
+    public ReplicaRoutingDataSource replicaDataSource(HikariDataSource readOnlyDataSource,
+                                                      Environment environment,
+                                                      MeterRegistry meterRegistry,
+                                                      @Value("${app.datasource.replica-max-lag:5s}") Duration maxLag) {
+        Binder binder = Binder.get(environment);
+        List<HikariDataSource> replicas = new ArrayList<>();
+        for (int i = 0; binder.bind(REPLICA_PROPERTIES + "[" + i + "].jdbc-url", String.class).isBound(); i++) {
+            HikariDataSource replica = new HikariDataSource();
+            binder.bind(SHARED_POOL_PROPERTIES, Bindable.ofInstance(replica));
+            binder.bind(REPLICA_PROPERTIES + "[" + i + "]", Bindable.ofInstance(replica));
+            replica.setPoolName("gamestore-replica-" + i);
+            replica.setReadOnly(true);
+            replica.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+            replicas.add(replica);
+        }
+        return new ReplicaRoutingDataSource(replicas, readOnlyDataSource, maxLag);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(HikariDataSource readWriteDataSource,
+                                 HikariDataSource readOnlyDataSource,
+                                 ObjectProvider<ReplicaRoutingDataSource> replicaDataSource) {
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(readWriteDataSource);
+        DataSource replicas = replicaDataSource.getIfAvailable();
+        dataSource.setReadOnlyDataSource(replicas != null ? replicas : readOnlyDataSource);
+        return dataSource;
+    }
+
+    private HikariDataSource createPool(DataSourceProperties properties, Environment environment) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .build();
+        Binder.get(environment).bind(SHARED_POOL_PROPERTIES, Bindable.ofInstance(dataSource));
+        return dataSource;
+    }
+}
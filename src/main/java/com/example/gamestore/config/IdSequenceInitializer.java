@@ -0,0 +1,50 @@
+package com.example.gamestore.config;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Moves each id sequence past the ids already in its table. Tables created while ids were
+ * IDENTITY columns get a fresh sequence starting at 1, which would otherwise collide with
+ * existing rows. Depends on the entity manager factory, so the schema update has created
+ * the sequences by then. Only sequences that are behind are touched, so a running instance's
+ * allocations are never rewound.
+ */
+@Component
+@DependsOn("entityManagerFactory")
+@RequiredArgsConstructor
+@Slf4j
+public class IdSequenceInitializer {
+
+    private static final Map<String, String> SEQUENCES = Map.of(
+            "games_seq", "games",
+            "carts_seq", "carts",
+            "cart_items_seq", "cart_items",
+            "orders_seq", "orders",
+            "order_items_seq", "order_items",
+            "users_seq", "users");
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @PostConstruct
+    public void synchronizeSequences() {
+        SEQUENCES.forEach((sequence, table) -> {
+            Long maxId = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM " + table, Long.class);
+            Map<String, Object> state = jdbcTemplate.queryForMap("SELECT last_value, is_called FROM " + sequence);
+            long lastValue = ((Number) state.get("last_value")).longValue();
+            boolean called = Boolean.TRUE.equals(state.get("is_called"));
+            // Until the first nextval, last_value is the value it will return rather than one already handed out
+            long nextValue = called ? lastValue + 1 : lastValue;
+            if (maxId != null && nextValue <= maxId) {
+                jdbcTemplate.queryForObject("SELECT setval(?, ?)", Long.class, sequence, maxId);
+                log.info("Advanced sequence {} from {} to {}", sequence, lastValue, maxId);
+            }
+        });
+    }
+}
@@ -0,0 +1,126 @@
+package com.example.gamestore.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Read-only connections from a set of streaming replicas, round-robin over those whose
+ * replay lag is within {@code maxLag}. When no replica qualifies, connections come from the
+ * fallback pool on the primary instead.
+ */
+@Slf4j
+public class ReplicaRoutingDataSource extends AbstractDataSource implements DisposableBean {
+
+    /**
+     * Replay lag in seconds; zero when everything received has been replayed, so an idle
+     * primary does not make a caught-up replica look stale.
+     */
+    private static final String LAG_QUERY = "SELECT CASE WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0 "
+            + "ELSE COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()), 0) END";
+
+    private final List<Replica> replicas;
+    private final DataSource fallback;
+    private final Duration maxLag;
+    private final AtomicInteger next = new AtomicInteger();
+
+    public ReplicaRoutingDataSource(List<HikariDataSource> replicas, DataSource fallback, Duration maxLag) {
+        this.replicas = replicas.stream().map(Replica::new).toList();
+        this.fallback = fallback;
+        this.maxLag = maxLag;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return route(DataSource::getConnection);
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return route(dataSource -> dataSource.getConnection(username, password));
+    }
+
+    private Connection route(Connector connector) throws SQLException {
+        int size = replicas.size();
+        int start = Math.floorMod(next.getAndIncrement(), size);
+        for (int i = 0; i < size; i++) {
+            Replica replica = replicas.get((start + i) % size);
+            if (!replica.available) {
+                continue;
+            }
+            try {
+                return connector.connect(replica.dataSource);
+            } catch (SQLFeatureNotSupportedException e) {
+                // Says nothing about the replica's health, only that the call is not supported
+                throw e;
+            } catch (SQLException e) {
+                replica.markUnavailable("connection failed: " + e.getMessage());
+            }
+        }
+        return connector.connect(fallback);
+    }
+
+    @Scheduled(fixedDelayString = "${app.datasource.replica-lag-check-interval-ms:5000}")
+    public void checkLag() {
+        for (Replica replica : replicas) {
+            try (Connection connection = replica.dataSource.getConnection();
+                 Statement statement = connection.createStatement();
+                 ResultSet resultSet = statement.executeQuery(LAG_QUERY)) {
+                resultSet.next();
+                double lagSeconds = resultSet.getDouble(1);
+                if (lagSeconds * 1000 > maxLag.toMillis()) {
+                    replica.markUnavailable("lag " + lagSeconds + "s");
+                } else {
+                    replica.markAvailable();
+                }
+            } catch (SQLException e) {
+                replica.markUnavailable("lag check failed: " + e.getMessage());
+            }
+        }
+    }
+
+    @Override
+    public void destroy() {
+        replicas.forEach(replica -> replica.dataSource.close());
+    }
+
+    @FunctionalInterface
+    private interface Connector {
+        Connection connect(DataSource dataSource) throws SQLException;
+    }
+
+    private static final class Replica {
+        private final HikariDataSource dataSource;
+        private volatile boolean available = true;
+
+        private Replica(HikariDataSource dataSource) {
+            this.dataSource = dataSource;
+        }
+
+        private void markAvailable() {
+            if (!available) {
+                log.info("Replica {} is back in rotation", dataSource.getPoolName());
+                available = true;
+            }
+        }
+
+        private void markUnavailable(String reason) {
+            if (available) {
+                log.warn("Replica {} taken out of rotation: {}", dataSource.getPoolName(), reason);
+                available = false;
+            }
+        }
+    }
+}
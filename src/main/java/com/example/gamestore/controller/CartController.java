@@ -1,6 +1,8 @@
 package com.example.gamestore.controller;
 
+import com.example.gamestore.dto.CartBatchRequest;
 import com.example.gamestore.dto.CartDTO;
+import com.example.gamestore.dto.CartSummaryDTO;
 import com.example.gamestore.service.CartService;
 import com.example.gamestore.util.SecurityUtils;
 import lombok.RequiredArgsConstructor;
@@ -24,6 +26,13 @@ public class CartController {
         return ResponseEntity.ok(cart);
     }
 
+    @GetMapping("/summary")
+    public ResponseEntity<CartSummaryDTO> getCartSummary() {
+        Long userId = securityUtils.getCurrentUserId();
+        CartSummaryDTO summary = cartService.getCartSummary(userId);
+        return ResponseEntity.ok(summary);
+    }
+
     @PostMapping("/items")
     public ResponseEntity<CartDTO> addToCart(@RequestBody AddToCartRequest request) {
         Long userId = securityUtils.getCurrentUserId();
@@ -31,6 +40,13 @@ public class CartController {
         return ResponseEntity.ok(cart);
     }
 
+    @PostMapping("/items/batch")
+    public ResponseEntity<CartDTO> applyBatch(@RequestBody CartBatchRequest request) {
+        Long userId = securityUtils.getCurrentUserId();
+        CartDTO cart = cartService.applyBatch(userId, request.getOperations());
+        return ResponseEntity.ok(cart);
+    }
+
     @PutMapping("/items/{itemId}")
     public ResponseEntity<CartDTO> updateCartItem(
             @PathVariable Long itemId,
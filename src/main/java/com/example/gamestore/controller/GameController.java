@@ -1,9 +1,20 @@
 package com.example.gamestore.controller;
 
 import com.example.gamestore.dto.GameDTO;
+import com.example.gamestore.dto.GameFilterRequest;
+import com.example.gamestore.dto.GameFilterResultDTO;
+import com.example.gamestore.dto.GamePageDTO;
+import com.example.gamestore.dto.GamePageRequest;
+import com.example.gamestore.dto.GameSuggestionDTO;
+import com.example.gamestore.service.GameCatalogJsonCache;
+import com.example.gamestore.service.GameCatalogJsonCache.EncodedJson;
 import com.example.gamestore.service.GameService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
@@ -18,15 +29,37 @@ import java.util.List;
 public class GameController {
 
     private final GameService gameService;
+    private final GameCatalogJsonCache catalogJsonCache;
+
+    @Value("${app.catalog.pre-encoded-json:true}")
+    private boolean preEncodedJson;
 
     @GetMapping
-    public ResponseEntity<List<GameDTO>> getAllGames() {
+    public ResponseEntity<?> getAllGames(
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
         log.info("=== GET /api/games called ===");
+        if (preEncodedJson) {
+            return encodedResponse(catalogJsonCache.getAllGames(), acceptEncoding);
+        }
         List<GameDTO> games = gameService.getAllActiveGames();
         log.info("Successfully loaded {} games", games.size());
         return ResponseEntity.ok(games);
     }
 
+    @GetMapping("/page")
+    public ResponseEntity<GamePageDTO> getGamePage(@ModelAttribute GamePageRequest request) {
+        log.info("=== GET /api/games/page called: {} ===", request);
+        GamePageDTO page = gameService.getGamePage(request);
+        return ResponseEntity.ok(page);
+    }
+
+    @GetMapping("/filter")
+    public ResponseEntity<GameFilterResultDTO> filterGames(@ModelAttribute GameFilterRequest request) {
+        log.info("=== GET /api/games/filter called: {} ===", request);
+        GameFilterResultDTO result = gameService.filterGames(request);
+        return ResponseEntity.ok(result);
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<GameDTO> getGameById(@PathVariable Long id) {
         log.info("=== GET /api/games/{} called ===", id);
@@ -41,16 +74,35 @@ public class GameController {
         return ResponseEntity.ok(games);
     }
 
+    @GetMapping("/suggest")
+    public ResponseEntity<List<GameSuggestionDTO>> suggestGames(
+            @RequestParam String prefix,
+            @RequestParam(required = false) Integer limit) {
+        log.debug("=== GET /api/games/suggest called with prefix: {} ===", prefix);
+        List<GameSuggestionDTO> suggestions = gameService.suggestGames(prefix, limit);
+        return ResponseEntity.ok(suggestions);
+    }
+
     @GetMapping("/genre/{genre}")
-    public ResponseEntity<List<GameDTO>> getGamesByGenre(@PathVariable String genre) {
+    public ResponseEntity<?> getGamesByGenre(
+            @PathVariable String genre,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
         log.info("=== GET /api/games/genre/{} called ===", genre);
+        if (preEncodedJson) {
+            return encodedResponse(catalogJsonCache.getGamesByGenre(genre), acceptEncoding);
+        }
         List<GameDTO> games = gameService.getGamesByGenre(genre);
         return ResponseEntity.ok(games);
     }
 
     @GetMapping("/platform/{platform}")
-    public ResponseEntity<List<GameDTO>> getGamesByPlatform(@PathVariable String platform) {
+    public ResponseEntity<?> getGamesByPlatform(
+            @PathVariable String platform,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
         log.info("=== GET /api/games/platform/{} called ===", platform);
+        if (preEncodedJson) {
+            return encodedResponse(catalogJsonCache.getGamesByPlatform(platform), acceptEncoding);
+        }
         List<GameDTO> games = gameService.getGamesByPlatform(platform);
         return ResponseEntity.ok(games);
     }
@@ -94,4 +146,53 @@ public class GameController {
     public ResponseEntity<String> testEndpoint() {
         return ResponseEntity.ok("Backend is working perfectly!");
     }
+
+    private ResponseEntity<byte[]> encodedResponse(EncodedJson json, String acceptEncoding) {
+        boolean gzip = acceptsGzip(acceptEncoding);
+
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .cacheControl(CacheControl.noCache())
+                .varyBy(HttpHeaders.ACCEPT_ENCODING)
+                .eTag(gzip ? json.gzipEtag() : json.etag());
+
+        if (gzip) {
+            return builder.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(json.gzipBody());
+        }
+        return builder.body(json.body());
+    }
+
+    /**
+     * Reads the q-values of Accept-Encoding: {@code gzip;q=0} refuses gzip, and a wildcard
+     * only applies when gzip is not listed explicitly.
+     */
+    private boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        Double gzipQuality = null;
+        Double wildcardQuality = null;
+        for (String entry : acceptEncoding.split(",")) {
+            String[] parts = entry.split(";");
+            String coding = parts[0].trim().toLowerCase();
+            double quality = 1.0;
+            for (int i = 1; i < parts.length; i++) {
+                String parameter = parts[i].trim();
+                if (parameter.startsWith("q=")) {
+                    try {
+                        quality = Double.parseDouble(parameter.substring(2));
+                    } catch (NumberFormatException e) {
+                        quality = 0;
+                    }
+                }
+            }
+            if (coding.equals("gzip") || coding.equals("x-gzip")) {
+                gzipQuality = quality;
+            } else if (coding.equals("*")) {
+                wildcardQuality = quality;
+            }
+        }
+        Double quality = gzipQuality != null ? gzipQuality : wildcardQuality;
+        return quality != null && quality > 0;
+    }
 }
\ No newline at end of file
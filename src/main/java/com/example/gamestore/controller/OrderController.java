@@ -1,14 +1,24 @@
 package com.example.gamestore.controller;
 
 import com.example.gamestore.dto.OrderDTO;
+import com.example.gamestore.dto.OrderPageDTO;
+import com.example.gamestore.dto.OrderPageRequest;
+import com.example.gamestore.service.CartService;
 import com.example.gamestore.service.OrderService;
 import com.example.gamestore.util.SecurityUtils;
+import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.time.Duration;
 import java.util.List;
 
 @RestController
@@ -18,14 +28,20 @@ import java.util.List;
 public class OrderController {
 
     private final OrderService orderService;
+    private final CartService cartService;
     private final SecurityUtils securityUtils;
 
+    @Value("${app.orders.export-timeout-minutes:30}")
+    private long exportTimeoutMinutes;
+
     @PostMapping
     public ResponseEntity<OrderDTO> createOrder() {
         log.info("Creating new order");
         Long userId = securityUtils.getCurrentUserId();
         log.info("User ID for order creation: {}", userId);
 
+        // Outside createOrder's transaction, so a buffered cart is written without holding a second connection
+        cartService.flushPendingChanges(userId);
         OrderDTO order = orderService.createOrder(userId);
         log.info("Order created successfully with ID: {}", order.getId());
 
@@ -58,13 +74,35 @@ public class OrderController {
         return ResponseEntity.ok(order);
     }
 
-    @GetMapping("/admin/all")
+    @GetMapping("/admin")
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<List<OrderDTO>> getAllOrders() {
-        log.info("Getting all orders (admin)");
-        List<OrderDTO> orders = orderService.getAllOrders();
-        log.info("Found {} total orders", orders.size());
-        return ResponseEntity.ok(orders);
+    public ResponseEntity<OrderPageDTO> getOrderPage(@ModelAttribute OrderPageRequest request) {
+        log.info("Getting order page (admin): {}", request);
+        OrderPageDTO page = orderService.getOrderPage(request);
+        return ResponseEntity.ok(page);
+    }
+
+    @GetMapping("/admin/export")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<StreamingResponseBody> exportOrders(
+            @ModelAttribute OrderPageRequest request,
+            @RequestParam(defaultValue = "ndjson") String format,
+            HttpServletRequest servletRequest) {
+        log.info("Exporting orders (admin) as {}: {}", format, request);
+        boolean csv = switch (format.toLowerCase()) {
+            case "csv" -> true;
+            case "ndjson" -> false;
+            default -> throw new RuntimeException("Unsupported export format: " + format);
+        };
+
+        // Applies only to this request; the streaming body is handled asynchronously with it
+        WebAsyncUtils.getAsyncManager(servletRequest).getAsyncWebRequest()
+                .setTimeout(Duration.ofMinutes(exportTimeoutMinutes).toMillis());
+        StreamingResponseBody body = out -> orderService.exportOrders(request, csv, out);
+        return ResponseEntity.ok()
+                .contentType(csv ? new MediaType("text", "csv") : MediaType.APPLICATION_NDJSON)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"orders." + (csv ? "csv" : "ndjson") + "\"")
+                .body(body);
     }
 
     @PutMapping("/admin/{orderId}/status")
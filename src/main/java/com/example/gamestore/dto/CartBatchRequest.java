@@ -0,0 +1,23 @@
+package com.example.gamestore.dto;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+public class CartBatchRequest {
+    private List<Operation> operations = new ArrayList<>();
+
+    @Data
+    public static class Operation {
+        private Type type;
+        private Long gameId;
+        private Long itemId;
+        private Integer quantity;
+    }
+
+    public enum Type {
+        ADD, UPDATE, REMOVE
+    }
+}
@@ -0,0 +1,16 @@
+package com.example.gamestore.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CartSummaryDTO {
+    private int itemCount;
+    private BigDecimal totalPrice;
+    private long version;
+}
@@ -0,0 +1,23 @@
+package com.example.gamestore.dto;
+
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+public class GameFilterRequest {
+    private List<String> genres = new ArrayList<>();
+    private List<String> platforms = new ArrayList<>();
+    private List<String> priceBuckets = new ArrayList<>();
+    private BigDecimal minPrice;
+    private BigDecimal maxPrice;
+    private Boolean discounted;
+    private Integer releaseYearFrom;
+    private Integer releaseYearTo;
+    private String sort = "id";
+    private String direction = "asc";
+    private String cursor;
+    private Integer size;
+}
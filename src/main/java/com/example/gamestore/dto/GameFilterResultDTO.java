@@ -0,0 +1,19 @@
+package com.example.gamestore.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class GameFilterResultDTO {
+    private GamePageDTO page;
+    private int total;
+    private Map<String, Integer> genreCounts;
+    private Map<String, Integer> platformCounts;
+    private Map<String, Integer> priceBucketCounts;
+    private int discountedCount;
+}
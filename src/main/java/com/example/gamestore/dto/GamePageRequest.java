@@ -0,0 +1,14 @@
+package com.example.gamestore.dto;
+
+import lombok.Data;
+
+@Data
+public class GamePageRequest {
+    private String genre;
+    private String platform;
+    private String query;
+    private String sort = "id";
+    private String direction = "asc";
+    private String cursor;
+    private Integer size;
+}
@@ -0,0 +1,14 @@
+package com.example.gamestore.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class GameSuggestionDTO {
+    private Long id;
+    private String title;
+    private String imageUrl;
+}
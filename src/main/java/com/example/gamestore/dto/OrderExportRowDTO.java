@@ -0,0 +1,29 @@
+package com.example.gamestore.dto;
+
+import com.example.gamestore.model.Order;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * One order line of the admin export, read straight from the query without loading entities.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderExportRowDTO {
+    private Long orderId;
+    private LocalDateTime orderDate;
+    private Order.OrderStatus status;
+    private BigDecimal totalAmount;
+    private Long userId;
+    private String userName;
+    private String userEmail;
+    private Long gameId;
+    private String gameTitle;
+    private Integer quantity;
+    private BigDecimal priceAtPurchase;
+}
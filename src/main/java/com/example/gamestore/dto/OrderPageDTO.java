@@ -0,0 +1,17 @@
+package com.example.gamestore.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderPageDTO {
+    private List<OrderDTO> items;
+    private String nextCursor;
+    private boolean hasMore;
+    private int size;
+}
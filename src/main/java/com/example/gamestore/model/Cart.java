@@ -15,7 +15,8 @@ import java.util.List;
 @NoArgsConstructor
 public class Cart {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "carts_seq")
+    @SequenceGenerator(name = "carts_seq", sequenceName = "carts_seq", allocationSize = 50)
     private Long id;
 
     @OneToOne(fetch = FetchType.LAZY)
@@ -44,20 +45,4 @@ public class Cart {
             items = new ArrayList<>();
         }
     }
-
-    public void recalculateTotal() {
-        if (items != null) {
-            this.totalPrice = items.stream()
-                    .map(item -> {
-                        if (item.getPrice() != null && item.getQuantity() != null) {
-                            return item.getPrice().multiply(BigDecimal.valueOf(item.getQuantity()));
-                        }
-                        return BigDecimal.ZERO;
-                    })
-                    .reduce(BigDecimal.ZERO, BigDecimal::add);
-        } else {
-            this.totalPrice = BigDecimal.ZERO;
-        }
-        this.updatedAt = LocalDateTime.now();
-    }
 }
\ No newline at end of file
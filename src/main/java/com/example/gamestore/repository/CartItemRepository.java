@@ -8,6 +8,7 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
 import java.util.List;
 import java.util.Optional;
 
@@ -53,5 +54,19 @@ public interface CartItemRepository extends JpaRepository<CartItem, Long> {
     @Query("UPDATE CartItem ci SET ci.quantity = :quantity WHERE ci.id = :itemId AND ci.cart.id = :cartId")
     int updateQuantity(@Param("cartId") Long cartId, @Param("itemId") Long itemId, @Param("quantity") Integer quantity);
 
-
+    /**
+     * Inserts the line or adds to its quantity in one statement, so concurrent adds of the same
+     * game never lose an update. An existing line keeps the price it was added at.
+     */
+    @Query(value = "INSERT INTO cart_items (id, cart_id, game_id, quantity, price) " +
+            "VALUES (nextval('cart_items_seq'), :cartId, :gameId, :quantity, :price) " +
+            "ON CONFLICT (cart_id, game_id) DO UPDATE SET quantity = cart_items.quantity + EXCLUDED.quantity " +
+            "RETURNING quantity, price", nativeQuery = true)
+    UpsertResult upsertQuantity(@Param("cartId") Long cartId, @Param("gameId") Long gameId,
+                                @Param("quantity") Integer quantity, @Param("price") BigDecimal price);
+
+    interface UpsertResult {
+        Integer getQuantity();
+        BigDecimal getPrice();
+    }
 }
\ No newline at end of file
@@ -2,10 +2,13 @@ package com.example.gamestore.repository;
 
 import com.example.gamestore.model.Cart;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.Optional;
 
 @Repository
@@ -15,4 +18,25 @@ public interface CartRepository extends JpaRepository<Cart, Long> {
 
     @Query("SELECT c FROM Cart c LEFT JOIN FETCH c.items i LEFT JOIN FETCH i.game WHERE c.user.id = :userId")
     Optional<Cart> findByUserIdWithItems(@Param("userId") Long userId);
+
+    @Query("SELECT c FROM Cart c JOIN FETCH c.user LEFT JOIN FETCH c.items i LEFT JOIN FETCH i.game WHERE c.user.id = :userId")
+    Optional<Cart> findForCheckout(@Param("userId") Long userId);
+
+    @Query("SELECT c.id FROM Cart c WHERE c.user.id = :userId")
+    Optional<Long> findIdByUserId(@Param("userId") Long userId);
+
+    @Query("SELECT c.totalPrice FROM Cart c WHERE c.id = :cartId")
+    BigDecimal findTotalById(@Param("cartId") Long cartId);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Cart c SET c.totalPrice = c.totalPrice + :delta, c.updatedAt = :updatedAt WHERE c.id = :cartId")
+    int addToTotal(@Param("cartId") Long cartId, @Param("delta") BigDecimal delta, @Param("updatedAt") LocalDateTime updatedAt);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Cart c SET c.totalPrice = :total, c.updatedAt = :updatedAt WHERE c.id = :cartId")
+    int updateTotal(@Param("cartId") Long cartId, @Param("total") BigDecimal total, @Param("updatedAt") LocalDateTime updatedAt);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Cart c SET c.totalPrice = 0, c.updatedAt = :updatedAt WHERE c.id = :cartId")
+    int resetTotal(@Param("cartId") Long cartId, @Param("updatedAt") LocalDateTime updatedAt);
 }
\ No newline at end of file
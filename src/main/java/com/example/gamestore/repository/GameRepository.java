@@ -6,8 +6,10 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 @Repository
 public interface GameRepository extends JpaRepository<Game, Long> {
@@ -19,4 +21,13 @@ public interface GameRepository extends JpaRepository<Game, Long> {
     List<Game> findByGenreAndActiveTrue(@Param("genre") String genre);
 
     List<Game> findByPlatformAndActiveTrue(String platform);
+
+    @Query("SELECT DISTINCT g FROM Game g LEFT JOIN FETCH g.genres WHERE g.active = true")
+    List<Game> findActiveWithGenres();
+
+    @Query("SELECT g FROM Game g LEFT JOIN FETCH g.genres WHERE g.id = :id AND g.active = true")
+    Optional<Game> findActiveByIdWithGenres(@Param("id") Long id);
+
+    @Query("SELECT g.id FROM Game g WHERE g.id IN :ids")
+    Set<Long> findExistingIds(@Param("ids") Collection<Long> ids);
 }
\ No newline at end of file
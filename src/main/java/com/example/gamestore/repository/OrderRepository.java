@@ -1,18 +1,60 @@
 package com.example.gamestore.repository;
 
+import com.example.gamestore.dto.OrderExportRowDTO;
 import com.example.gamestore.model.Order;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface OrderRepository extends JpaRepository<Order, Long> {
+    @EntityGraph(attributePaths = {"user", "items", "items.game"})
     List<Order> findByUserIdOrderByOrderDateDesc(Long userId);
 
-    @Query("SELECT o FROM Order o ORDER BY o.orderDate DESC")
-    List<Order> findAllByOrderByOrderDateDesc();
+    @EntityGraph(attributePaths = {"user", "items", "items.game"})
+    @Query("SELECT o FROM Order o WHERE o.id = :id")
+    Optional<Order> findWithItemsById(@Param("id") Long id);
 
     List<Order> findByStatus(Order.OrderStatus status);
-}
\ No newline at end of file
+
+    /**
+     * Keyset page of order ids, newest first. The cursor is the (orderDate, id) of the last
+     * order of the previous page; the first page passes {@code to} and {@link Long#MAX_VALUE}.
+     */
+    @Query("SELECT o.id FROM Order o " +
+            "WHERE o.status IN :statuses AND o.orderDate >= :from AND o.orderDate < :to " +
+            "AND (o.orderDate < :afterDate OR (o.orderDate = :afterDate AND o.id < :afterId)) " +
+            "ORDER BY o.orderDate DESC, o.id DESC")
+    List<Long> findPageIds(@Param("statuses") Collection<Order.OrderStatus> statuses,
+                           @Param("from") LocalDateTime from,
+                           @Param("to") LocalDateTime to,
+                           @Param("afterDate") LocalDateTime afterDate,
+                           @Param("afterId") Long afterId,
+                           Limit limit);
+
+    @EntityGraph(attributePaths = {"user", "items", "items.game"})
+    @Query("SELECT o FROM Order o WHERE o.id IN :ids ORDER BY o.orderDate DESC, o.id DESC")
+    List<Order> findWithItemsByIdIn(@Param("ids") Collection<Long> ids);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT new com.example.gamestore.dto.OrderExportRowDTO(o.id, o.orderDate, o.status, o.totalAmount, " +
+            "u.id, u.username, u.email, g.id, g.title, i.quantity, i.priceAtPurchase) " +
+            "FROM OrderItem i JOIN i.order o JOIN o.user u JOIN i.game g " +
+            "WHERE o.status IN :statuses AND o.orderDate >= :from AND o.orderDate < :to " +
+            "ORDER BY o.orderDate DESC, o.id DESC, i.id")
+    Stream<OrderExportRowDTO> streamExportRows(@Param("statuses") Collection<Order.OrderStatus> statuses,
+                                               @Param("from") LocalDateTime from,
+                                               @Param("to") LocalDateTime to);
+}
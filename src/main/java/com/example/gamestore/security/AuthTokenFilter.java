@@ -1,6 +1,8 @@
 package com.example.gamestore.security;
 
+import com.example.gamestore.service.UserDetailsImpl;
 import com.example.gamestore.service.UserDetailsServiceImpl;
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -9,6 +11,7 @@ import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
@@ -16,6 +19,8 @@ import org.springframework.util.StringUtils;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 @RequiredArgsConstructor
 public class AuthTokenFilter extends OncePerRequestFilter {
@@ -23,16 +28,16 @@ public class AuthTokenFilter extends OncePerRequestFilter {
 
     private final JwtUtils jwtUtils;
     private final UserDetailsServiceImpl userDetailsService;
+    private final UserStatusCache userStatusCache;
+    private final VerifiedTokenCache verifiedTokenCache;
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
             throws ServletException, IOException {
         try {
             String jwt = parseJwt(request);
-            if (jwt != null && jwtUtils.validateJwtToken(jwt)) {
-                String username = jwtUtils.getUserNameFromJwtToken(jwt);
-
-                UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+            UserDetails userDetails = jwt != null ? authenticate(jwt) : null;
+            if (userDetails != null) {
                 UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
                         userDetails, null, userDetails.getAuthorities());
                 authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
@@ -46,6 +51,48 @@ public class AuthTokenFilter extends OncePerRequestFilter {
         filterChain.doFilter(request, response);
     }
 
+    private UserDetails authenticate(String jwt) {
+        UserDetails cached = verifiedTokenCache.get(jwt);
+        if (cached != null) {
+            // Entries live as long as the token, so status changes are still bounded by UserStatusCache
+            return !(cached instanceof UserDetailsImpl details) || isCurrent(details) ? cached : null;
+        }
+
+        Claims claims = jwtUtils.parseAndValidate(jwt).orElse(null);
+        if (claims == null) {
+            return null;
+        }
+
+        UserDetails userDetails = resolveUser(claims);
+        if (userDetails != null) {
+            verifiedTokenCache.put(jwt, userDetails, claims.getExpiration());
+        }
+        return userDetails;
+    }
+
+    private UserDetails resolveUser(Claims claims) {
+        if (jwtUtils.isStateless()) {
+            UserDetailsImpl fromToken = jwtUtils.getUserDetailsFromClaims(claims);
+            if (fromToken != null) {
+                return isCurrent(fromToken) ? fromToken : null;
+            }
+        }
+        return userDetailsService.loadUserByUsername(claims.getSubject());
+    }
+
+    private boolean isCurrent(UserDetailsImpl fromToken) {
+        UserStatusCache.UserStatus status = userStatusCache.get(fromToken.getId());
+        Set<String> tokenRoles = fromToken.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .collect(Collectors.toSet());
+
+        if (!status.active() || !status.roles().equals(tokenRoles)) {
+            logger.warn("Rejected token of user {}: account disabled or roles changed", fromToken.getUsername());
+            return false;
+        }
+        return true;
+    }
+
     private String parseJwt(HttpServletRequest request) {
         String headerAuth = request.getHeader("Authorization");
 
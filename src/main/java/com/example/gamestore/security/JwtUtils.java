@@ -1,51 +1,87 @@
 package com.example.gamestore.security;
 
+import com.example.gamestore.service.UserDetailsImpl;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.SignatureException;
+import jakarta.annotation.PostConstruct;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.stereotype.Component;
 
 import java.security.Key;
+import java.util.Collection;
 import java.util.Date;
+import java.util.List;
+import java.util.Optional;
 
 @Component
 public class JwtUtils {
     private static final Logger logger = LoggerFactory.getLogger(JwtUtils.class);
 
+    public static final String USER_ID_CLAIM = "uid";
+    public static final String EMAIL_CLAIM = "email";
+    public static final String ROLES_CLAIM = "roles";
+
     @Value("${app.jwtSecret:mySecretKey}")
     private String jwtSecret;
 
     @Value("${app.jwtExpirationMs:86400000}")
     private int jwtExpirationMs;
 
+    @Value("${app.jwt.stateless:true}")
+    private boolean stateless;
+
+    private Key signingKey;
+    private JwtParser parser;
+
+    @PostConstruct
+    void init() {
+        signingKey = Keys.hmacShaKeyFor(Decoders.BASE64.decode(jwtSecret));
+        parser = Jwts.parserBuilder().setSigningKey(signingKey).build();
+    }
+
     public String generateJwtToken(Authentication authentication) {
         String username = authentication.getName();
 
-        return Jwts.builder()
-                .setSubject(username)
+        JwtBuilder builder = Jwts.builder().setSubject(username);
+        if (authentication.getPrincipal() instanceof UserDetailsImpl userDetails) {
+            builder.claim(USER_ID_CLAIM, userDetails.getId())
+                    .claim(EMAIL_CLAIM, userDetails.getEmail())
+                    .claim(ROLES_CLAIM, userDetails.getAuthorities().stream()
+                            .map(GrantedAuthority::getAuthority)
+                            .toList());
+        }
+
+        return builder
                 .setIssuedAt(new Date())
                 .setExpiration(new Date((new Date()).getTime() + jwtExpirationMs))
-                .signWith(key(), SignatureAlgorithm.HS256)
+                .signWith(signingKey, SignatureAlgorithm.HS256)
                 .compact();
     }
 
-    private Key key() {
-        return Keys.hmacShaKeyFor(Decoders.BASE64.decode(jwtSecret));
+    public String getUserNameFromJwtToken(String token) {
+        return parser.parseClaimsJws(token).getBody().getSubject();
     }
 
-    public String getUserNameFromJwtToken(String token) {
-        return Jwts.parserBuilder().setSigningKey(key()).build()
-                .parseClaimsJws(token).getBody().getSubject();
+    public boolean isStateless() {
+        return stateless;
     }
 
-    public boolean validateJwtToken(String authToken) {
+    /**
+     * Verifies the signature and expiry and returns the claims (subject included) in one parse.
+     * The key and parser are immutable and shared, so nothing is rebuilt per call.
+     */
+    public Optional<Claims> parseAndValidate(String authToken) {
         try {
-            Jwts.parserBuilder().setSigningKey(key()).build().parse(authToken);
-            return true;
+            return Optional.of(parser.parseClaimsJws(authToken).getBody());
+        } catch (SignatureException e) {
+            logger.error("Invalid JWT signature: {}", e.getMessage());
         } catch (MalformedJwtException e) {
             logger.error("Invalid JWT token: {}", e.getMessage());
         } catch (ExpiredJwtException e) {
@@ -56,6 +92,34 @@ public class JwtUtils {
             logger.error("JWT claims string is empty: {}", e.getMessage());
         }
 
-        return false;
+        return Optional.empty();
+    }
+
+    public boolean validateJwtToken(String authToken) {
+        return parseAndValidate(authToken).isPresent();
+    }
+
+    /**
+     * Builds the principal from identity claims, or returns {@code null} for tokens issued
+     * before the claims were embedded.
+     */
+    public UserDetailsImpl getUserDetailsFromClaims(Claims claims) {
+        Number userId = claims.get(USER_ID_CLAIM, Number.class);
+        Object roles = claims.get(ROLES_CLAIM);
+        if (userId == null || !(roles instanceof Collection<?> roleNames)) {
+            return null;
+        }
+
+        List<GrantedAuthority> authorities = roleNames.stream()
+                .<GrantedAuthority>map(role -> new SimpleGrantedAuthority(String.valueOf(role)))
+                .toList();
+
+        return new UserDetailsImpl(
+                userId.longValue(),
+                claims.getSubject(),
+                claims.get(EMAIL_CLAIM, String.class),
+                null,
+                authorities,
+                true);
     }
 }
\ No newline at end of file
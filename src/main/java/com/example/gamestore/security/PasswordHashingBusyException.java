@@ -0,0 +1,11 @@
+package com.example.gamestore.security;
+
+/**
+ * Thrown when the password hashing queue is full. Mapped to 503 so clients back off and retry.
+ */
+public class PasswordHashingBusyException extends RuntimeException {
+
+    public PasswordHashingBusyException() {
+        super("Authentication service is busy, please retry shortly");
+    }
+}
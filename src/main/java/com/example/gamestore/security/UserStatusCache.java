@@ -0,0 +1,68 @@
+package com.example.gamestore.security;
+
+import com.example.gamestore.model.User;
+import com.example.gamestore.repository.UserRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Short-lived cache of each user's active flag and roles. Stateless tokens are checked
+ * against it so that disabled users and changed roles take effect without a per-request query.
+ */
+@Component
+public class UserStatusCache {
+
+    private static final UserStatus MISSING = new UserStatus(false, Set.of());
+
+    private final UserRepository userRepository;
+    private final Cache<Long, UserStatus> statuses;
+
+    public UserStatusCache(UserRepository userRepository,
+                           @Value("${app.jwt.user-status-ttl-seconds:30}") long ttlSeconds,
+                           @Value("${app.jwt.user-status-max-size:100000}") long maxSize) {
+        this.userRepository = userRepository;
+        this.statuses = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .maximumSize(maxSize)
+                .build();
+    }
+
+    /**
+     * Loads outside the cache's compute so the query never runs while a map bin is locked,
+     * which would pin the carrier of a virtual thread. A concurrent miss may load twice.
+     */
+    public UserStatus get(Long userId) {
+        UserStatus status = statuses.getIfPresent(userId);
+        if (status == null) {
+            status = load(userId);
+            statuses.put(userId, status);
+        }
+        return status;
+    }
+
+    public void evict(Long userId) {
+        statuses.invalidate(userId);
+    }
+
+    private UserStatus load(Long userId) {
+        return userRepository.findByIdWithRoles(userId)
+                .map(this::toStatus)
+                .orElse(MISSING);
+    }
+
+    private UserStatus toStatus(User user) {
+        Set<String> roles = user.getRoles().stream()
+                .map(role -> role.getName().name())
+                .collect(Collectors.toUnmodifiableSet());
+        return new UserStatus(Boolean.TRUE.equals(user.getActive()), roles);
+    }
+
+    public record UserStatus(boolean active, Set<String> roles) {
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.gamestore.security;
+
+import com.example.gamestore.service.UserDetailsImpl;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Date;
+import java.util.Objects;
+
+/**
+ * Bounded cache of tokens whose signature has already been verified, keyed by a SHA-256
+ * hash of the token. An entry never outlives the token's own expiry. Callers still check
+ * {@link UserStatusCache} on a hit, since a cached principal may belong to a user who has
+ * since been disabled or had their roles changed.
+ */
+@Component
+public class VerifiedTokenCache {
+
+    private final Cache<String, Entry> entries;
+
+    public VerifiedTokenCache(@Value("${app.jwt.token-cache-size:10000}") long maxSize) {
+        this.entries = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new TokenExpiry())
+                .build();
+    }
+
+    public UserDetails get(String token) {
+        Entry entry = entries.getIfPresent(hash(token));
+        return entry != null ? entry.userDetails() : null;
+    }
+
+    public void put(String token, UserDetails userDetails, Date expiresAt) {
+        if (expiresAt == null) {
+            return;
+        }
+        Long userId = userDetails instanceof UserDetailsImpl details ? details.getId() : null;
+        entries.put(hash(token), new Entry(userDetails, userId, expiresAt.getTime()));
+    }
+
+    public void evictUser(Long userId) {
+        entries.asMap().values().removeIf(entry -> Objects.equals(entry.userId(), userId));
+    }
+
+    private String hash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private record Entry(UserDetails userDetails, Long userId, long expiresAtMillis) {
+    }
+
+    private static final class TokenExpiry implements Expiry<String, Entry> {
+
+        @Override
+        public long expireAfterCreate(String key, Entry entry, long currentTime) {
+            long remainingMillis = entry.expiresAtMillis() - System.currentTimeMillis();
+            return Math.max(0L, remainingMillis) * 1_000_000L;
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, Entry entry, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, entry, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, Entry entry, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -18,6 +18,7 @@ import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.util.List;
 import java.util.stream.Collectors;
@@ -32,9 +33,13 @@ public class AuthServiceImpl implements AuthService {
     private final RoleRepository roleRepository;
     private final PasswordEncoder passwordEncoder;
     private final JwtUtils jwtUtils;
+    private final TransactionTemplate transactionTemplate;
 
+    /**
+     * Not transactional on purpose: the password check waits for the hashing pool, and the
+     * principal it returns already carries everything the response needs.
+     */
     @Override
-    @Transactional
     public AuthResponse authenticate(AuthRequest request) {
         log.info("Attempting authentication for user: {}", request.getUsername());
 
@@ -44,20 +49,21 @@ public class AuthServiceImpl implements AuthService {
         SecurityContextHolder.getContext().setAuthentication(authentication);
         String jwt = jwtUtils.generateJwtToken(authentication);
 
-        User user = userRepository.findByUsernameWithRoles(request.getUsername())
-                .orElseThrow(() -> new RuntimeException("User not found after authentication"));
-
-        List<String> roles = user.getRoles().stream()
-                .map(role -> role.getName().name())
+        UserDetailsImpl userDetails = (UserDetailsImpl) authentication.getPrincipal();
+        List<String> roles = userDetails.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
                 .collect(Collectors.toList());
 
-        log.info("User {} successfully authenticated. Roles: {}", user.getUsername(), roles);
+        log.info("User {} successfully authenticated. Roles: {}", userDetails.getUsername(), roles);
 
-        return new AuthResponse(jwt, user.getId(), user.getUsername(), user.getEmail(), roles);
+        return new AuthResponse(jwt, userDetails.getId(), userDetails.getUsername(), userDetails.getEmail(), roles);
     }
 
+    /**
+     * Hashes the password before opening the transaction, so a registration queued behind the
+     * hashing pool does not hold a pooled connection while it waits.
+     */
     @Override
-    @Transactional
     public AuthResponse register(RegisterRequest request) {
         log.info("Attempting registration for user: {}", request.getUsername());
 
@@ -69,21 +75,26 @@ public class AuthServiceImpl implements AuthService {
             throw new RuntimeException("Email is already in use");
         }
 
-        User user = new User();
-        user.setUsername(request.getUsername());
-        user.setEmail(request.getEmail());
-        user.setPassword(passwordEncoder.encode(request.getPassword()));
-        user.setActive(true);
+        String encodedPassword = passwordEncoder.encode(request.getPassword());
+
+        User savedUser = transactionTemplate.execute(status -> {
+            User user = new User();
+            user.setUsername(request.getUsername());
+            user.setEmail(request.getEmail());
+            user.setPassword(encodedPassword);
+            user.setActive(true);
 
-        Role userRole = roleRepository.findByName(Role.RoleName.ROLE_USER)
-                .orElseThrow(() -> new RuntimeException("Error: Role is not found."));
-        user.addRole(userRole);
+            Role userRole = roleRepository.findByName(Role.RoleName.ROLE_USER)
+                    .orElseThrow(() -> new RuntimeException("Error: Role is not found."));
+            user.addRole(userRole);
 
-        User savedUser = userRepository.save(user);
+            return userRepository.save(user);
+        });
         log.info("User registered successfully: {}", savedUser.getUsername());
 
-        Authentication authentication = authenticationManager.authenticate(
-                new UsernamePasswordAuthenticationToken(request.getUsername(), request.getPassword()));
+        UserDetailsImpl userDetails = UserDetailsImpl.build(savedUser);
+        Authentication authentication = new UsernamePasswordAuthenticationToken(
+                userDetails, null, userDetails.getAuthorities());
 
         SecurityContextHolder.getContext().setAuthentication(authentication);
         String jwt = jwtUtils.generateJwtToken(authentication);
@@ -0,0 +1,231 @@
+package com.example.gamestore.service;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Append-only log of cart changes for the write-behind cart store, split into numbered
+ * segments. Each record states the resulting quantity of a line rather than a difference,
+ * so replaying a segment that was already flushed is harmless.
+ * <p>
+ * A flush first {@link #rotate() rotates} to a new segment, writes the carts, then deletes
+ * the segments it closed. After a crash, {@link #replay} applies whatever is left in order.
+ * A record counts only once its newline is written; an unterminated last line was never
+ * acknowledged and is skipped. Segments are never reopened, so nothing is appended after it.
+ */
+@Slf4j
+public final class CartChangeLog implements AutoCloseable {
+
+    private static final String SEGMENT_PREFIX = "cart-changes-";
+    private static final String SEGMENT_SUFFIX = ".log";
+
+    private final Path directory;
+    private final boolean fsync;
+    private final ReentrantLock lock = new ReentrantLock();
+    private FileChannel channel;
+    private long segment;
+
+    public CartChangeLog(Path directory, boolean fsync) {
+        this.directory = directory;
+        this.fsync = fsync;
+        try {
+            Files.createDirectories(directory);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot create cart change log directory " + directory, e);
+        }
+        List<Path> existing = segments();
+        this.segment = existing.isEmpty() ? 0 : segmentNumber(existing.get(existing.size() - 1));
+    }
+
+    /**
+     * Applies every record of the existing segments, oldest first. Must run before the first
+     * {@link #rotate()} or append. Fails on a malformed record that is followed by others,
+     * since that means the log itself is damaged rather than an append was cut short.
+     */
+    public void replay(Consumer<Change> consumer) {
+        for (Path path : segments()) {
+            String content;
+            try {
+                content = Files.readString(path, StandardCharsets.UTF_8);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot replay cart change log " + path, e);
+            }
+
+            int start = 0;
+            for (int lineNumber = 1; start < content.length(); lineNumber++) {
+                int end = content.indexOf('\n', start);
+                if (end < 0) {
+                    log.warn("Ignoring incomplete record at line {} of {}, left by an interrupted append",
+                            lineNumber, path);
+                    break;
+                }
+                String record = content.substring(start, end);
+                start = end + 1;
+                if (record.isBlank()) {
+                    continue;
+                }
+                try {
+                    consumer.accept(Change.decode(record));
+                } catch (IllegalArgumentException e) {
+                    throw new IllegalStateException("Corrupt cart change log " + path + " at line " + lineNumber, e);
+                }
+            }
+        }
+    }
+
+    /**
+     * Writes the changes with a single write and, if enabled, a single fsync.
+     */
+    public void append(Change... changes) {
+        StringBuilder records = new StringBuilder();
+        for (Change change : changes) {
+            records.append(change.encode()).append('\n');
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(records.toString().getBytes(StandardCharsets.UTF_8));
+        lock.lock();
+        try {
+            if (channel == null) {
+                open(++segment);
+            }
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            if (fsync) {
+                channel.force(false);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot append to cart change log", e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Closes the current segment and starts a new one. Returns the closed segments, which the
+     * caller deletes once everything they describe is in the database.
+     */
+    public List<Path> rotate() {
+        lock.lock();
+        try {
+            closeChannel();
+            List<Path> closed = segments();
+            open(++segment);
+            return closed;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot rotate cart change log", e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void delete(List<Path> segments) {
+        for (Path path : segments) {
+            try {
+                Files.deleteIfExists(path);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot delete cart change log " + path, e);
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        lock.lock();
+        try {
+            closeChannel();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot close cart change log", e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void open(long number) throws IOException {
+        channel = FileChannel.open(directory.resolve(SEGMENT_PREFIX + number + SEGMENT_SUFFIX),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+
+    private void closeChannel() throws IOException {
+        if (channel != null) {
+            channel.force(true);
+            channel.close();
+            channel = null;
+        }
+    }
+
+    private List<Path> segments() {
+        try (Stream<Path> files = Files.list(directory)) {
+            List<Path> segments = new ArrayList<>(files
+                    .filter(path -> {
+                        String name = path.getFileName().toString();
+                        return name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX);
+                    })
+                    .toList());
+            segments.sort(Comparator.comparingLong(CartChangeLog::segmentNumber));
+            return segments;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot list cart change log segments in " + directory, e);
+        }
+    }
+
+    private static long segmentNumber(Path path) {
+        String name = path.getFileName().toString();
+        return Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+    }
+
+    /**
+     * Sets the quantity of one line, where zero removes it, or clears the whole cart when
+     * {@code gameId} is {@code null}.
+     */
+    public record Change(Long userId, Long gameId, int quantity, BigDecimal price) {
+
+        public static Change set(Long userId, Long gameId, int quantity, BigDecimal price) {
+            return new Change(userId, gameId, Math.max(quantity, 0), price);
+        }
+
+        public static Change clear(Long userId) {
+            return new Change(userId, null, 0, null);
+        }
+
+        public boolean isClear() {
+            return gameId == null;
+        }
+
+        private String encode() {
+            return isClear()
+                    ? "CLEAR " + userId
+                    : "SET " + userId + " " + gameId + " " + quantity + " " + price.toPlainString();
+        }
+
+        private static Change decode(String record) {
+            String[] parts = record.split(" ");
+            try {
+                if (parts.length == 2 && "CLEAR".equals(parts[0])) {
+                    return clear(Long.valueOf(parts[1]));
+                }
+                if (parts.length == 5 && "SET".equals(parts[0])) {
+                    return set(Long.valueOf(parts[1]), Long.valueOf(parts[2]),
+                            Integer.parseInt(parts[3]), new BigDecimal(parts[4]));
+                }
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Malformed cart change record: " + record, e);
+            }
+            throw new IllegalArgumentException("Malformed cart change record: " + record);
+        }
+    }
+}
@@ -0,0 +1,6 @@
+package com.example.gamestore.service;
+
+import java.math.BigDecimal;
+
+public record CartChangedEvent(Long userId, int itemCount, BigDecimal totalPrice) {
+}
@@ -2,11 +2,13 @@ package com.example.gamestore.service;
 
 import com.example.gamestore.model.CartItem;
 import com.example.gamestore.repository.CartItemRepository;
+import com.example.gamestore.repository.CartItemRepository.UpsertResult;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
 import java.util.List;
 import java.util.Optional;
 
@@ -92,4 +94,8 @@ public class CartItemService {
         return cartItemRepository.updateQuantity(cartId, itemId, quantity);
     }
 
+    @Transactional
+    public UpsertResult addQuantity(Long cartId, Long gameId, Integer quantity, BigDecimal price) {
+        return cartItemRepository.upsertQuantity(cartId, gameId, quantity, price);
+    }
 }
\ No newline at end of file
@@ -1,6 +1,8 @@
 package com.example.gamestore.service;
 
+import com.example.gamestore.dto.CartBatchRequest;
 import com.example.gamestore.dto.CartDTO;
+import com.example.gamestore.dto.CartSummaryDTO;
 
 import java.math.BigDecimal;
 import java.util.List;
@@ -11,14 +13,21 @@ public interface CartService {
     CartDTO updateCartItem(Long userId, Long itemId, Integer quantity);
     void removeItemFromCart(Long userId, Long itemId);
     void clearCart(Long userId);
+    CartDTO applyBatch(Long userId, List<CartBatchRequest.Operation> operations);
 
 
     boolean isGameInUserCart(Long userId, Long gameId);
     int getCartItemCount(Long userId);
     BigDecimal getCartTotalPrice(Long userId);
+    CartSummaryDTO getCartSummary(Long userId);
 
 
     void cleanupInactiveGameItems();
     void recalculateAllCartsTotals();
     List<Long> getUsersWithNonEmptyCarts();
+
+    // Writes buffered cart changes to the database; only the write-behind store buffers any.
+    // Call it before checkout opens its transaction, not from inside it
+    default void flushPendingChanges(Long userId) {
+    }
 }
\ No newline at end of file
@@ -1,24 +1,33 @@
 package com.example.gamestore.service;
 
+import com.example.gamestore.dto.CartBatchRequest;
 import com.example.gamestore.dto.CartDTO;
 import com.example.gamestore.dto.CartItemDTO;
+import com.example.gamestore.dto.CartSummaryDTO;
 import com.example.gamestore.model.Cart;
 import com.example.gamestore.model.CartItem;
 import com.example.gamestore.model.Game;
 import com.example.gamestore.model.User;
+import com.example.gamestore.repository.CartItemRepository.UpsertResult;
 import com.example.gamestore.repository.CartRepository;
 import com.example.gamestore.repository.GameRepository;
 import com.example.gamestore.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -29,6 +38,10 @@ public class CartServiceImpl implements CartService {
     private final CartItemService cartItemService;
     private final UserRepository userRepository;
     private final GameRepository gameRepository;
+    private final CartSummaryCache cartSummaryCache;
+    private final ApplicationEventPublisher eventPublisher;
+
+    private static final int MAX_BATCH_OPERATIONS = 100;
 
     @Override
     @Transactional(readOnly = true)
@@ -52,33 +65,21 @@ public class CartServiceImpl implements CartService {
         log.info("Adding item to cart - user: {}, game: {}, quantity: {}", userId, gameId, quantity);
         validateAddToCartParameters(userId, gameId, quantity);
 
-        Cart cart = cartRepository.findByUserIdWithItems(userId)
-                .orElseGet(() -> createNewCart(userId));
+        Long cartId = cartRepository.findIdByUserId(userId)
+                .orElseGet(() -> createNewCart(userId).getId());
 
         Game game = getGameById(gameId);
         validateGameAvailability(game);
 
-        Optional<CartItem> existingItemOpt = cartItemService.findByCartIdAndGameId(cart.getId(), gameId);
-
-        CartItem cartItem;
-        if (existingItemOpt.isPresent()) {
-            cartItem = existingItemOpt.get();
-            int newQuantity = cartItem.getQuantity() + quantity;
-            cartItem.setQuantity(newQuantity);
-            log.info("Updated existing cart item: {} to quantity: {}", game.getTitle(), newQuantity);
-        } else {
-            cartItem = createNewCartItem(cart, game, quantity);
-            cart.getItems().add(cartItem);
-            log.info("Added new cart item: {} with quantity: {}", game.getTitle(), quantity);
-        }
+        UpsertResult result = cartItemService.addQuantity(cartId, gameId, quantity, itemPrice(game));
+        log.info("Cart item: {} now at quantity: {}", game.getTitle(), result.getQuantity());
 
-        cartItemService.save(cartItem);
-        recalculateCartTotal(cart);
-        Cart savedCart = cartRepository.save(cart);
+        applyTotalDelta(cartId, result.getPrice().multiply(BigDecimal.valueOf(quantity)));
 
-        CartDTO cartDTO = convertToDTO(savedCart);
+        CartDTO cartDTO = loadCart(userId);
+        publishCartChanged(userId, cartDTO);
         log.info("Cart successfully updated. Total: ${} for user: {}",
-                savedCart.getTotalPrice(), userId);
+                cartDTO.getTotalPrice(), userId);
 
         return cartDTO;
     }
@@ -94,20 +95,17 @@ public class CartServiceImpl implements CartService {
 
         validateCartItemOwnership(cartItem, userId);
 
-        Cart cart = cartItem.getCart();
-
         if (quantity == null || quantity <= 0) {
-            removeCartItem(cart, cartItem, itemId);
+            removeCartItem(cartItem);
             log.info("Removed cart item: {} due to zero quantity", itemId);
         } else {
-            updateCartItemQuantity(cartItem, quantity, itemId);
+            updateCartItemQuantity(cartItem, quantity);
             log.info("Updated cart item: {} to quantity: {}", itemId, quantity);
         }
 
-        recalculateCartTotal(cart);
-        Cart savedCart = cartRepository.save(cart);
-
-        return convertToDTO(savedCart);
+        CartDTO cartDTO = loadCart(userId);
+        publishCartChanged(userId, cartDTO);
+        return cartDTO;
     }
 
     @Override
@@ -121,8 +119,9 @@ public class CartServiceImpl implements CartService {
 
         validateCartItemOwnership(cartItem, userId);
 
-        Cart cart = cartItem.getCart();
-        removeCartItem(cart, cartItem, itemId);
+        Long cartId = cartItem.getCart().getId();
+        removeCartItem(cartItem);
+        publishCartChanged(userId, (int) cartItemService.countByCartId(cartId), cartRepository.findTotalById(cartId));
 
         log.info("Successfully removed cart item: {} for user: {}", itemId, userId);
     }
@@ -133,18 +132,114 @@ public class CartServiceImpl implements CartService {
         log.info("Clearing cart for user: {}", userId);
         validateUserId(userId);
 
-        Cart cart = cartRepository.findByUserId(userId)
+        Long cartId = cartRepository.findIdByUserId(userId)
                 .orElseThrow(() -> new RuntimeException("Cart not found for user: " + userId));
 
-        cartItemService.deleteByCartId(cart.getId());
-        cart.getItems().clear();
-        cart.setTotalPrice(BigDecimal.ZERO);
-        cart.setUpdatedAt(LocalDateTime.now());
-        cartRepository.save(cart);
+        cartItemService.deleteByCartId(cartId);
+        cartRepository.resetTotal(cartId, LocalDateTime.now());
+        eventPublisher.publishEvent(new CartChangedEvent(userId, 0, BigDecimal.ZERO));
 
         log.info("Successfully cleared cart for user: {}", userId);
     }
 
+    /**
+     * Applies all operations to the cart in one transaction: one fetch of the cart with its
+     * items, one lookup of the added games, batched item writes and a single total update.
+     */
+    @Override
+    @Transactional
+    public CartDTO applyBatch(Long userId, List<CartBatchRequest.Operation> operations) {
+        log.info("Applying {} cart operations for user: {}", operations == null ? 0 : operations.size(), userId);
+        validateUserId(userId);
+        if (operations == null || operations.isEmpty()) {
+            throw new RuntimeException("Operations cannot be empty");
+        }
+        if (operations.size() > MAX_BATCH_OPERATIONS) {
+            throw new RuntimeException("Cannot apply more than " + MAX_BATCH_OPERATIONS + " operations at once");
+        }
+
+        Cart cart = cartRepository.findByUserIdWithItems(userId)
+                .orElseGet(() -> createNewCart(userId));
+
+        List<Long> gameIds = operations.stream()
+                .filter(operation -> operation.getType() == CartBatchRequest.Type.ADD)
+                .map(CartBatchRequest.Operation::getGameId)
+                .filter(Objects::nonNull)
+                .distinct()
+                .toList();
+        Map<Long, Game> games = gameRepository.findAllById(gameIds).stream()
+                .collect(Collectors.toMap(Game::getId, Function.identity()));
+
+        Map<Long, CartItem> itemsByGameId = new HashMap<>();
+        Map<Long, CartItem> itemsById = new HashMap<>();
+        // Hibernate inserts before it deletes orphans, so a game removed and added back in the
+        // same batch must reuse its row or the insert hits uk_cart_items_cart_game
+        Map<Long, CartItem> removedByGameId = new HashMap<>();
+        for (CartItem item : cart.getItems()) {
+            itemsByGameId.put(item.getGame().getId(), item);
+            itemsById.put(item.getId(), item);
+        }
+
+        BigDecimal delta = BigDecimal.ZERO;
+        for (CartBatchRequest.Operation operation : operations) {
+            if (operation.getType() == null) {
+                throw new RuntimeException("Operation type cannot be null");
+            }
+            switch (operation.getType()) {
+                case ADD -> {
+                    validateAddToCartParameters(userId, operation.getGameId(), operation.getQuantity());
+                    Game game = games.get(operation.getGameId());
+                    if (game == null) {
+                        throw new RuntimeException("Game not found with id: " + operation.getGameId());
+                    }
+                    validateGameAvailability(game);
+
+                    CartItem item = itemsByGameId.get(game.getId());
+                    if (item != null) {
+                        item.setQuantity(item.getQuantity() + operation.getQuantity());
+                    } else {
+                        item = removedByGameId.remove(game.getId());
+                        if (item != null) {
+                            item.setQuantity(operation.getQuantity());
+                            item.setPrice(itemPrice(game));
+                            itemsById.put(item.getId(), item);
+                        } else {
+                            item = createNewCartItem(cart, game, operation.getQuantity());
+                        }
+                        cart.getItems().add(item);
+                        itemsByGameId.put(game.getId(), item);
+                    }
+                    delta = delta.add(item.getPrice().multiply(BigDecimal.valueOf(operation.getQuantity())));
+                }
+                case UPDATE, REMOVE -> {
+                    CartItem item = operation.getItemId() != null ? itemsById.get(operation.getItemId()) : null;
+                    if (item == null) {
+                        throw new RuntimeException("Cart item not found with id: " + operation.getItemId());
+                    }
+
+                    Integer quantity = operation.getType() == CartBatchRequest.Type.REMOVE ? null : operation.getQuantity();
+                    if (quantity == null || quantity <= 0) {
+                        delta = delta.subtract(item.getSubtotal());
+                        cart.getItems().remove(item);
+                        itemsById.remove(item.getId());
+                        itemsByGameId.remove(item.getGame().getId());
+                        removedByGameId.put(item.getGame().getId(), item);
+                    } else {
+                        delta = delta.add(item.getPrice().multiply(BigDecimal.valueOf(quantity - item.getQuantity())));
+                        item.setQuantity(quantity);
+                    }
+                }
+            }
+        }
+
+        applyTotalDelta(cart.getId(), delta);
+
+        CartDTO cartDTO = loadCart(userId);
+        publishCartChanged(userId, cartDTO);
+        log.info("Applied {} cart operations for user: {}. Total: ${}", operations.size(), userId, cartDTO.getTotalPrice());
+        return cartDTO;
+    }
+
     @Override
     @Transactional(readOnly = true)
     public boolean isGameInUserCart(Long userId, Long gameId) {
@@ -192,6 +287,13 @@ public class CartServiceImpl implements CartService {
         return cart.getTotalPrice() != null ? cart.getTotalPrice() : BigDecimal.ZERO;
     }
 
+    @Override
+    public CartSummaryDTO getCartSummary(Long userId) {
+        validateUserId(userId);
+        return cartSummaryCache.get(userId,
+                () -> new CartSummaryDTO(getCartItemCount(userId), getCartTotalPrice(userId), 0L));
+    }
+
 
 
     private void validateUserId(Long userId) {
@@ -251,23 +353,50 @@ public class CartServiceImpl implements CartService {
         cartItem.setCart(cart);
         cartItem.setGame(game);
         cartItem.setQuantity(quantity);
+        cartItem.setPrice(itemPrice(game));
+        return cartItem;
+    }
 
-        BigDecimal itemPrice = (game.getDiscountPrice() != null && game.getDiscountPrice().compareTo(BigDecimal.ZERO) > 0)
+    private BigDecimal itemPrice(Game game) {
+        return (game.getDiscountPrice() != null && game.getDiscountPrice().compareTo(BigDecimal.ZERO) > 0)
                 ? game.getDiscountPrice()
                 : game.getPrice();
-        cartItem.setPrice(itemPrice);
-
-        return cartItem;
     }
 
-    private void removeCartItem(Cart cart, CartItem cartItem, Long itemId) {
-        cart.getItems().remove(cartItem);
+    private void removeCartItem(CartItem cartItem) {
+        Long cartId = cartItem.getCart().getId();
+        BigDecimal subtotal = cartItem.getSubtotal();
         cartItemService.delete(cartItem);
+        applyTotalDelta(cartId, subtotal.negate());
     }
 
-    private void updateCartItemQuantity(CartItem cartItem, Integer quantity, Long itemId) {
+    private void updateCartItemQuantity(CartItem cartItem, Integer quantity) {
+        int difference = quantity - cartItem.getQuantity();
         cartItem.setQuantity(quantity);
         cartItemService.save(cartItem);
+        applyTotalDelta(cartItem.getCart().getId(), cartItem.getPrice().multiply(BigDecimal.valueOf(difference)));
+    }
+
+    /**
+     * Moves the stored cart total by the change of a single line, in one UPDATE on the cart
+     * row, instead of reloading and re-summing every item.
+     */
+    private void applyTotalDelta(Long cartId, BigDecimal delta) {
+        cartRepository.addToTotal(cartId, delta, LocalDateTime.now());
+    }
+
+    private void publishCartChanged(Long userId, CartDTO cart) {
+        publishCartChanged(userId, cart.getItems().size(), cart.getTotalPrice());
+    }
+
+    private void publishCartChanged(Long userId, int itemCount, BigDecimal totalPrice) {
+        eventPublisher.publishEvent(new CartChangedEvent(userId, itemCount, totalPrice));
+    }
+
+    private CartDTO loadCart(Long userId) {
+        Cart cart = cartRepository.findByUserIdWithItems(userId)
+                .orElseThrow(() -> new RuntimeException("Cart not found for user: " + userId));
+        return convertToDTO(cart);
     }
 
     private void recalculateCartTotal(Cart cart) {
@@ -292,7 +421,7 @@ public class CartServiceImpl implements CartService {
         cart.setUser(user);
         cart.setTotalPrice(BigDecimal.ZERO);
         cart.setUpdatedAt(LocalDateTime.now());
-        Cart savedCart = cartRepository.save(cart);
+        Cart savedCart = cartRepository.saveAndFlush(cart);
 
         log.info("Created new cart for user: {}", userId);
         return savedCart;
@@ -0,0 +1,48 @@
+package com.example.gamestore.service;
+
+import com.example.gamestore.dto.CartSummaryDTO;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Per-user cart item count and total for the header badge. Cart mutations replace the
+ * entry once their transaction commits, so reads are answered from memory; the database
+ * is only consulted for users not seen since the entry expired.
+ */
+@Component
+public class CartSummaryCache {
+
+    private final Cache<Long, CartSummaryDTO> summaries;
+    private final AtomicLong versions = new AtomicLong();
+
+    public CartSummaryCache(@Value("${app.cart.summary-ttl-minutes:30}") long ttlMinutes,
+                            @Value("${app.cart.summary-max-size:100000}") long maxSize) {
+        this.summaries = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofMinutes(ttlMinutes))
+                .maximumSize(maxSize)
+                .build();
+    }
+
+    public CartSummaryDTO get(Long userId, Supplier<CartSummaryDTO> loader) {
+        CartSummaryDTO summary = summaries.getIfPresent(userId);
+        if (summary == null) {
+            summary = loader.get();
+            summary.setVersion(versions.incrementAndGet());
+            summaries.asMap().putIfAbsent(userId, summary);
+        }
+        return summary;
+    }
+
+    @TransactionalEventListener
+    public void onCartChanged(CartChangedEvent event) {
+        summaries.put(event.userId(),
+                new CartSummaryDTO(event.itemCount(), event.totalPrice(), versions.incrementAndGet()));
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.gamestore.service;
+
+import com.example.gamestore.dto.GameDTO;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Immutable copy of a game as held by a {@link GameCatalogSnapshot}. Snapshot games are shared
+ * by every reader and every derived view, so callers outside the catalog get a
+ * {@link #toDTO() GameDTO copy} instead. Serializes to the same JSON as {@link GameDTO}.
+ */
+public record CatalogGame(Long id,
+                          String title,
+                          String description,
+                          String developer,
+                          String publisher,
+                          LocalDate releaseDate,
+                          String platform,
+                          Set<String> genres,
+                          BigDecimal price,
+                          BigDecimal discountPrice,
+                          String imageUrl,
+                          BigDecimal finalPrice,
+                          boolean hasDiscount,
+                          BigDecimal discountPercentage) {
+
+    public CatalogGame {
+        genres = genres != null ? Collections.unmodifiableSet(new LinkedHashSet<>(genres)) : Set.of();
+    }
+
+    public static CatalogGame from(GameDTO game) {
+        return new CatalogGame(game.getId(), game.getTitle(), game.getDescription(), game.getDeveloper(),
+                game.getPublisher(), game.getReleaseDate(), game.getPlatform(), game.getGenres(), game.getPrice(),
+                game.getDiscountPrice(), game.getImageUrl(), game.getFinalPrice(), game.isHasDiscount(),
+                game.getDiscountPercentage());
+    }
+
+    public GameDTO toDTO() {
+        GameDTO dto = new GameDTO();
+        dto.setId(id);
+        dto.setTitle(title);
+        dto.setDescription(description);
+        dto.setDeveloper(developer);
+        dto.setPublisher(publisher);
+        dto.setReleaseDate(releaseDate);
+        dto.setPlatform(platform);
+        dto.setGenres(new LinkedHashSet<>(genres));
+        dto.setPrice(price);
+        dto.setDiscountPrice(discountPrice);
+        dto.setImageUrl(imageUrl);
+        dto.setFinalPrice(finalPrice);
+        dto.setHasDiscount(hasDiscount);
+        dto.setDiscountPercentage(discountPercentage);
+        return dto;
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.gamestore.service;
+
+import com.example.gamestore.dto.GameDTO;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+@Component
+@Slf4j
+public class GameCatalogCache {
+
+    private final AtomicReference<GameCatalogSnapshot> snapshot = new AtomicReference<>();
+    private final AtomicLong versions = new AtomicLong();
+    private final ReentrantLock writeLock = new ReentrantLock();
+
+    public GameCatalogSnapshot get(Supplier<? extends Collection<GameDTO>> loader) {
+        GameCatalogSnapshot current = snapshot.get();
+        if (current != null) {
+            return current;
+        }
+
+        writeLock.lock();
+        try {
+            current = snapshot.get();
+            if (current == null) {
+                current = GameCatalogSnapshot.of(versions.incrementAndGet(), loader.get());
+                snapshot.set(current);
+                log.info("Loaded game catalog snapshot v{} with {} active games",
+                        current.getVersion(), current.getGames().size());
+            }
+            return current;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    public void refresh(Long gameId, Supplier<Optional<GameDTO>> loader) {
+        writeLock.lock();
+        try {
+            GameCatalogSnapshot current = snapshot.get();
+            if (current == null) {
+                return;
+            }
+
+            long version = versions.incrementAndGet();
+            GameCatalogSnapshot next = loader.get()
+                    .map(game -> current.withGame(version, game))
+                    .orElseGet(() -> current.withoutGame(version, gameId));
+            snapshot.set(next);
+            log.debug("Game catalog snapshot v{} published after change of game {}", version, gameId);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+}
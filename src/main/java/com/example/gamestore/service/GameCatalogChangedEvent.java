@@ -0,0 +1,4 @@
+package com.example.gamestore.service;
+
+public record GameCatalogChangedEvent(Long gameId) {
+}
@@ -0,0 +1,73 @@
+package com.example.gamestore.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.util.DigestUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class GameCatalogJsonCache {
+
+    private static final String ALL_GAMES = "json:all";
+    private static final String EMPTY = "json:empty";
+    private static final String GENRE_PREFIX = "json:genre:";
+    private static final String PLATFORM_PREFIX = "json:platform:";
+
+    private final GameServiceImpl gameService;
+    private final ObjectMapper objectMapper;
+
+    public EncodedJson getAllGames() {
+        return gameService.getCatalogSnapshot()
+                .view(ALL_GAMES, snapshot -> encode(snapshot.getGames()));
+    }
+
+    public EncodedJson getGamesByGenre(String genre) {
+        GameCatalogSnapshot snapshot = gameService.getCatalogSnapshot();
+        if (!snapshot.getGamesByGenre().containsKey(genre)) {
+            return snapshot.view(EMPTY, ignored -> encode(List.of()));
+        }
+        return snapshot.view(GENRE_PREFIX + genre, ignored -> encode(snapshot.findByGenre(genre)));
+    }
+
+    public EncodedJson getGamesByPlatform(String platform) {
+        GameCatalogSnapshot snapshot = gameService.getCatalogSnapshot();
+        if (!snapshot.getGamesByPlatform().containsKey(platform)) {
+            return snapshot.view(EMPTY, ignored -> encode(List.of()));
+        }
+        return snapshot.view(PLATFORM_PREFIX + platform, ignored -> encode(snapshot.findByPlatform(platform)));
+    }
+
+    private EncodedJson encode(List<CatalogGame> games) {
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(games);
+            String digest = DigestUtils.md5DigestAsHex(json);
+            log.debug("Pre-encoded {} games into {} bytes of JSON", games.size(), json.length);
+            return new EncodedJson(json, gzip(json), "\"" + digest + "\"", "\"" + digest + "-gzip\"");
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize game catalog", e);
+        }
+    }
+
+    private byte[] gzip(byte[] data) {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(Math.max(64, data.length / 4));
+        try (GZIPOutputStream gzip = new GZIPOutputStream(buffer)) {
+            gzip.write(data);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return buffer.toByteArray();
+    }
+
+    public record EncodedJson(byte[] body, byte[] gzipBody, String etag, String gzipEtag) {
+    }
+}
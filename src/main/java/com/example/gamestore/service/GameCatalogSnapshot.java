@@ -0,0 +1,132 @@
+package com.example.gamestore.service;
+
+import com.example.gamestore.dto.GameDTO;
+import lombok.AccessLevel;
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.function.Function;
+
+/**
+ * Immutable view of all active games. A new instance is built for every catalog change,
+ * so readers always see either the old or the new catalog, never a mix of both.
+ * <p>
+ * Games are held as {@link CatalogGame} records, which every derived view shares; callers
+ * outside the catalog get {@link GameDTO} copies from {@link CatalogGame#toDTO()}.
+ */
+@Getter
+public final class GameCatalogSnapshot {
+
+    private final long version;
+    private final List<CatalogGame> games;
+    private final Map<Long, CatalogGame> gamesById;
+    private final Map<String, List<CatalogGame>> gamesByGenre;
+    private final Map<String, List<CatalogGame>> gamesByPlatform;
+
+    @Getter(AccessLevel.NONE)
+    private final ConcurrentMap<Object, FutureTask<Object>> views = new ConcurrentHashMap<>();
+
+    private GameCatalogSnapshot(long version, Collection<CatalogGame> source) {
+        List<CatalogGame> sorted = new ArrayList<>(source);
+        sorted.sort(Comparator.comparing(CatalogGame::id));
+
+        Map<Long, CatalogGame> byId = new LinkedHashMap<>();
+        Map<String, List<CatalogGame>> byGenre = new HashMap<>();
+        Map<String, List<CatalogGame>> byPlatform = new HashMap<>();
+
+        for (CatalogGame game : sorted) {
+            byId.put(game.id(), game);
+            for (String genre : game.genres()) {
+                byGenre.computeIfAbsent(genre, key -> new ArrayList<>()).add(game);
+            }
+            if (game.platform() != null) {
+                byPlatform.computeIfAbsent(game.platform(), key -> new ArrayList<>()).add(game);
+            }
+        }
+
+        this.version = version;
+        this.games = Collections.unmodifiableList(sorted);
+        this.gamesById = Collections.unmodifiableMap(byId);
+        this.gamesByGenre = freeze(byGenre);
+        this.gamesByPlatform = freeze(byPlatform);
+    }
+
+    public static GameCatalogSnapshot of(long version, Collection<GameDTO> games) {
+        return new GameCatalogSnapshot(version, games.stream().map(CatalogGame::from).toList());
+    }
+
+    public GameCatalogSnapshot withGame(long version, GameDTO game) {
+        Map<Long, CatalogGame> updated = new LinkedHashMap<>(gamesById);
+        updated.put(game.getId(), CatalogGame.from(game));
+        return new GameCatalogSnapshot(version, updated.values());
+    }
+
+    public GameCatalogSnapshot withoutGame(long version, Long gameId) {
+        Map<Long, CatalogGame> updated = new LinkedHashMap<>(gamesById);
+        updated.remove(gameId);
+        return new GameCatalogSnapshot(version, updated.values());
+    }
+
+    public Optional<CatalogGame> findById(Long id) {
+        return Optional.ofNullable(gamesById.get(id));
+    }
+
+    public List<CatalogGame> findByGenre(String genre) {
+        return gamesByGenre.getOrDefault(genre, List.of());
+    }
+
+    public List<CatalogGame> findByPlatform(String platform) {
+        return gamesByPlatform.getOrDefault(platform, List.of());
+    }
+
+    /**
+     * Returns a value derived from this snapshot, computing it on first access.
+     * Derived views live and die with the snapshot, so they never outlive a catalog change.
+     * <p>
+     * The factory runs outside the map, since a {@code computeIfAbsent} holding a bin lock
+     * through a catalog-sized build would pin the carriers of waiting virtual threads.
+     * Concurrent callers wait on the same task instead of building the view again.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T view(Object key, Function<GameCatalogSnapshot, T> factory) {
+        FutureTask<Object> view = views.get(key);
+        if (view == null) {
+            FutureTask<Object> task = new FutureTask<>(() -> factory.apply(this));
+            view = views.putIfAbsent(key, task);
+            if (view == null) {
+                view = task;
+                task.run();
+            }
+        }
+        try {
+            return (T) view.get();
+        } catch (ExecutionException e) {
+            views.remove(key, view);
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException("Cannot build catalog view " + key, e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for catalog view " + key, e);
+        }
+    }
+
+    private static Map<String, List<CatalogGame>> freeze(Map<String, List<CatalogGame>> source) {
+        Map<String, List<CatalogGame>> frozen = new HashMap<>();
+        source.forEach((key, value) -> frozen.put(key, Collections.unmodifiableList(value)));
+        return Collections.unmodifiableMap(frozen);
+    }
+}
@@ -0,0 +1,260 @@
+package com.example.gamestore.service;
+
+import com.example.gamestore.dto.GameFilterRequest;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Bitmap indexes over the active catalog. Bit {@code i} stands for the i-th game of the
+ * snapshot, so filters are answered with bitwise AND/OR and facet counts with cardinality.
+ */
+public final class GameFacetIndex {
+
+    private static final BigDecimal[] PRICE_BOUNDS = {
+            BigDecimal.ZERO, BigDecimal.TEN, new BigDecimal("20"), new BigDecimal("40"), new BigDecimal("60")
+    };
+    private static final String[] PRICE_BUCKETS = {"0-10", "10-20", "20-40", "40-60", "60+"};
+
+    private final List<CatalogGame> games;
+    private final Map<Long, Integer> positions = new HashMap<>();
+    private final Map<String, BitSet> byGenre = new HashMap<>();
+    private final Map<String, BitSet> byPlatform = new HashMap<>();
+    private final Map<String, BitSet> byPriceBucket = new LinkedHashMap<>();
+    private final TreeMap<Integer, BitSet> byReleaseYear = new TreeMap<>();
+    private final BitSet discounted = new BitSet();
+    private final BitSet all = new BitSet();
+
+    private final int[] positionsByPrice;
+    private final BigDecimal[] sortedPrices;
+
+    private GameFacetIndex(List<CatalogGame> games) {
+        this.games = games;
+        for (String bucket : PRICE_BUCKETS) {
+            byPriceBucket.put(bucket, new BitSet());
+        }
+
+        List<Integer> priced = new ArrayList<>();
+        for (int i = 0; i < games.size(); i++) {
+            CatalogGame game = games.get(i);
+            positions.put(game.id(), i);
+            all.set(i);
+
+            for (String genre : game.genres()) {
+                byGenre.computeIfAbsent(genre, key -> new BitSet()).set(i);
+            }
+            if (game.platform() != null) {
+                byPlatform.computeIfAbsent(game.platform(), key -> new BitSet()).set(i);
+            }
+            if (game.hasDiscount()) {
+                discounted.set(i);
+            }
+            if (game.releaseDate() != null) {
+                byReleaseYear.computeIfAbsent(game.releaseDate().getYear(), key -> new BitSet()).set(i);
+            }
+            if (game.finalPrice() != null) {
+                byPriceBucket.get(priceBucket(game.finalPrice())).set(i);
+                priced.add(i);
+            }
+        }
+
+        priced.sort((left, right) -> games.get(left).finalPrice().compareTo(games.get(right).finalPrice()));
+        this.positionsByPrice = priced.stream().mapToInt(Integer::intValue).toArray();
+        this.sortedPrices = new BigDecimal[positionsByPrice.length];
+        for (int i = 0; i < positionsByPrice.length; i++) {
+            sortedPrices[i] = games.get(positionsByPrice[i]).finalPrice();
+        }
+    }
+
+    public static GameFacetIndex build(GameCatalogSnapshot snapshot) {
+        return new GameFacetIndex(snapshot.getGames());
+    }
+
+    public Result filter(GameFilterRequest request) {
+        BitSet genres = anyOf(byGenre, request.getGenres());
+        BitSet platforms = anyOf(byPlatform, request.getPlatforms());
+        BitSet buckets = anyOf(byPriceBucket, request.getPriceBuckets());
+        BitSet discount = Boolean.TRUE.equals(request.getDiscounted()) ? discounted : null;
+        BitSet ranges = and(priceRange(request.getMinPrice(), request.getMaxPrice()),
+                releaseYearRange(request.getReleaseYearFrom(), request.getReleaseYearTo()));
+
+        BitSet matches = and(and(genres, platforms), and(and(buckets, discount), ranges));
+
+        return new Result(
+                matches != null ? matches : all,
+                counts(byGenre, and(and(platforms, buckets), and(discount, ranges))),
+                counts(byPlatform, and(and(genres, buckets), and(discount, ranges))),
+                counts(byPriceBucket, and(and(genres, platforms), and(discount, ranges))),
+                intersectionSize(discounted, and(and(genres, platforms), and(buckets, ranges))));
+    }
+
+    /**
+     * Games of the given genre and platform whose ids are in {@code ids}. A {@code null}
+     * argument is no constraint.
+     */
+    public BitSet matching(String genre, String platform, Collection<Long> ids) {
+        BitSet byIds = null;
+        if (ids != null) {
+            byIds = new BitSet(games.size());
+            for (Long id : ids) {
+                Integer position = positions.get(id);
+                if (position != null) {
+                    byIds.set(position);
+                }
+            }
+        }
+        BitSet matches = and(and(genre != null ? anyOf(byGenre, List.of(genre)) : null,
+                platform != null ? anyOf(byPlatform, List.of(platform)) : null), byIds);
+        return matches != null ? matches : all;
+    }
+
+    /**
+     * Maps each position of this index to its position in {@code sorted}, which must hold the
+     * same games, so matches can be walked in that order with {@link #inOrder}.
+     */
+    public int[] ranks(List<CatalogGame> sorted) {
+        int[] ranks = new int[games.size()];
+        for (int i = 0; i < sorted.size(); i++) {
+            ranks[positions.get(sorted.get(i).id())] = i;
+        }
+        return ranks;
+    }
+
+    /**
+     * Re-numbers {@code matches} by {@code ranks}. Costs one step per match, not per game.
+     */
+    public BitSet inOrder(BitSet matches, int[] ranks) {
+        BitSet ordered = new BitSet(ranks.length);
+        for (int position = matches.nextSetBit(0); position >= 0; position = matches.nextSetBit(position + 1)) {
+            ordered.set(ranks[position]);
+        }
+        return ordered;
+    }
+
+    private BitSet anyOf(Map<String, BitSet> index, Collection<String> values) {
+        if (values == null || values.isEmpty()) {
+            return null;
+        }
+        BitSet union = new BitSet(games.size());
+        for (String value : values) {
+            BitSet bits = index.get(value);
+            if (bits != null) {
+                union.or(bits);
+            }
+        }
+        return union;
+    }
+
+    private BitSet priceRange(BigDecimal min, BigDecimal max) {
+        if (min == null && max == null) {
+            return null;
+        }
+        int from = min == null ? 0 : lowerBound(min);
+        int to = max == null ? sortedPrices.length : upperBound(max);
+
+        BitSet bits = new BitSet(games.size());
+        for (int i = from; i < to; i++) {
+            bits.set(positionsByPrice[i]);
+        }
+        return bits;
+    }
+
+    private BitSet releaseYearRange(Integer from, Integer to) {
+        if (from == null && to == null) {
+            return null;
+        }
+        BitSet bits = new BitSet(games.size());
+        byReleaseYear.subMap(from == null ? Integer.MIN_VALUE : from, true,
+                        to == null ? Integer.MAX_VALUE : to, true)
+                .values()
+                .forEach(bits::or);
+        return bits;
+    }
+
+    private int lowerBound(BigDecimal price) {
+        int low = 0;
+        int high = sortedPrices.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (sortedPrices[mid].compareTo(price) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private int upperBound(BigDecimal price) {
+        int low = 0;
+        int high = sortedPrices.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (sortedPrices[mid].compareTo(price) <= 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Intersects two constraints. {@code null} means "no constraint", so the other side wins.
+     * The inputs are never modified because some of them are the index bitmaps themselves.
+     */
+    private BitSet and(BitSet left, BitSet right) {
+        if (left == null) {
+            return right;
+        }
+        if (right == null) {
+            return left;
+        }
+        BitSet result = (BitSet) left.clone();
+        result.and(right);
+        return result;
+    }
+
+    private Map<String, Integer> counts(Map<String, BitSet> index, BitSet base) {
+        Map<String, Integer> counts = new TreeMap<>();
+        index.forEach((value, bits) -> {
+            int count = intersectionSize(bits, base);
+            if (count > 0 || index == byPriceBucket) {
+                counts.put(value, count);
+            }
+        });
+        return counts;
+    }
+
+    private int intersectionSize(BitSet bits, BitSet base) {
+        if (base == null) {
+            return bits.cardinality();
+        }
+        BitSet intersection = (BitSet) bits.clone();
+        intersection.and(base);
+        return intersection.cardinality();
+    }
+
+    private static String priceBucket(BigDecimal price) {
+        for (int i = PRICE_BOUNDS.length - 1; i > 0; i--) {
+            if (price.compareTo(PRICE_BOUNDS[i]) >= 0) {
+                return PRICE_BUCKETS[i];
+            }
+        }
+        return PRICE_BUCKETS[0];
+    }
+
+    public record Result(BitSet matches,
+                         Map<String, Integer> genreCounts,
+                         Map<String, Integer> platformCounts,
+                         Map<String, Integer> priceBucketCounts,
+                         int discountedCount) {
+    }
+}
@@ -0,0 +1,166 @@
+package com.example.gamestore.service;
+
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Inverted index over the active catalog. Built once per catalog snapshot, then shared
+ * read-only by all searches until the next catalog change replaces the snapshot.
+ */
+public final class GameSearchIndex {
+
+    private static final Pattern TOKEN_SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private static final float TITLE_WEIGHT = 8f;
+    private static final float GENRE_WEIGHT = 4f;
+    private static final float DEVELOPER_WEIGHT = 3f;
+    private static final float PUBLISHER_WEIGHT = 3f;
+    private static final float DESCRIPTION_WEIGHT = 1f;
+    private static final float PREFIX_MATCH_FACTOR = 0.5f;
+    private static final float TITLE_SUBSTRING_FACTOR = 0.25f;
+    private static final float TITLE_PREFIX_BONUS = 10f;
+
+    private final Map<Long, CatalogGame> games;
+    private final Map<String, Map<Long, Float>> postings;
+    private final String[] terms;
+    private final Map<Long, String> lowerCaseTitles;
+
+    private GameSearchIndex(Map<Long, CatalogGame> games, Map<String, Map<Long, Float>> postings) {
+        this.games = games;
+        this.postings = postings;
+        this.terms = postings.keySet().toArray(new String[0]);
+        Arrays.sort(this.terms);
+        this.lowerCaseTitles = new HashMap<>();
+        games.forEach((id, game) -> {
+            if (game.title() != null) {
+                lowerCaseTitles.put(id, game.title().toLowerCase(Locale.ROOT));
+            }
+        });
+    }
+
+    public static GameSearchIndex build(GameCatalogSnapshot snapshot) {
+        Map<String, Map<Long, Float>> postings = new HashMap<>();
+        for (CatalogGame game : snapshot.getGames()) {
+            index(postings, game.id(), game.title(), TITLE_WEIGHT);
+            index(postings, game.id(), game.developer(), DEVELOPER_WEIGHT);
+            index(postings, game.id(), game.publisher(), PUBLISHER_WEIGHT);
+            index(postings, game.id(), game.description(), DESCRIPTION_WEIGHT);
+            for (String genre : game.genres()) {
+                index(postings, game.id(), genre, GENRE_WEIGHT);
+            }
+        }
+        return new GameSearchIndex(snapshot.getGamesById(), postings);
+    }
+
+    public List<CatalogGame> search(String query) {
+        Map<Long, Float> scores = score(query);
+        String normalizedQuery = query == null ? "" : query.trim().toLowerCase(Locale.ROOT);
+
+        List<Map.Entry<Long, Float>> ranked = new ArrayList<>(scores.entrySet());
+        ranked.replaceAll(entry -> {
+            String title = games.get(entry.getKey()).title();
+            boolean titlePrefix = title != null && title.toLowerCase(Locale.ROOT).startsWith(normalizedQuery);
+            return Map.entry(entry.getKey(), entry.getValue() + (titlePrefix ? TITLE_PREFIX_BONUS : 0f));
+        });
+        ranked.sort(Map.Entry.<Long, Float>comparingByValue().reversed()
+                .thenComparing(entry -> games.get(entry.getKey()).title(),
+                        Comparator.nullsLast(String.CASE_INSENSITIVE_ORDER)));
+
+        List<CatalogGame> result = new ArrayList<>(ranked.size());
+        for (Map.Entry<Long, Float> entry : ranked) {
+            result.add(games.get(entry.getKey()));
+        }
+        return result;
+    }
+
+    public Set<Long> matchingIds(String query) {
+        return score(query).keySet();
+    }
+
+    /**
+     * Every query token must match (AND). A token matches a term either exactly or as its
+     * prefix, so partially typed words still find results; exact matches rank higher.
+     * <p>
+     * Titles containing the whole query match as well, with the lowest score, so everything
+     * the former {@code title LIKE '%query%'} search found is still found ("oom" finds "Doom").
+     * Like that search, a blank query matches every game.
+     */
+    private Map<Long, Float> score(String query) {
+        String normalizedQuery = query == null ? "" : query.trim().toLowerCase(Locale.ROOT);
+        if (normalizedQuery.isEmpty()) {
+            Map<Long, Float> all = new HashMap<>();
+            games.keySet().forEach(id -> all.put(id, 0f));
+            return all;
+        }
+
+        Map<Long, Float> scores = scoreTokens(tokenize(normalizedQuery));
+        lowerCaseTitles.forEach((id, title) -> {
+            if (title.contains(normalizedQuery)) {
+                scores.merge(id, TITLE_WEIGHT * TITLE_SUBSTRING_FACTOR, Math::max);
+            }
+        });
+        return scores;
+    }
+
+    private Map<Long, Float> scoreTokens(List<String> tokens) {
+        if (tokens.isEmpty()) {
+            return new HashMap<>();
+        }
+
+        Map<Long, Float> scores = null;
+        for (String token : new LinkedHashSet<>(tokens)) {
+            Map<Long, Float> tokenScores = scoreToken(token);
+            if (scores == null) {
+                scores = tokenScores;
+            } else {
+                scores.keySet().retainAll(tokenScores.keySet());
+                scores.replaceAll((id, score) -> score + tokenScores.get(id));
+            }
+            if (scores.isEmpty()) {
+                break;
+            }
+        }
+        return scores;
+    }
+
+    private Map<Long, Float> scoreToken(String token) {
+        Map<Long, Float> scores = new HashMap<>();
+        int from = Arrays.binarySearch(terms, token);
+        if (from < 0) {
+            from = -from - 1;
+        }
+        for (int i = from; i < terms.length && terms[i].startsWith(token); i++) {
+            float factor = terms[i].length() == token.length() ? 1f : PREFIX_MATCH_FACTOR;
+            postings.get(terms[i]).forEach((id, weight) -> scores.merge(id, weight * factor, Math::max));
+        }
+        return scores;
+    }
+
+    private static void index(Map<String, Map<Long, Float>> postings, Long gameId, String text, float weight) {
+        for (String token : new LinkedHashSet<>(tokenize(text))) {
+            postings.computeIfAbsent(token, key -> new HashMap<>()).merge(gameId, weight, Float::sum);
+        }
+    }
+
+    static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        List<String> tokens = new ArrayList<>();
+        for (String token : TOKEN_SEPARATOR.split(text.toLowerCase(Locale.ROOT))) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+}
@@ -1,6 +1,11 @@
 package com.example.gamestore.service;
 
 import com.example.gamestore.dto.GameDTO;
+import com.example.gamestore.dto.GameFilterRequest;
+import com.example.gamestore.dto.GameFilterResultDTO;
+import com.example.gamestore.dto.GamePageDTO;
+import com.example.gamestore.dto.GamePageRequest;
+import com.example.gamestore.dto.GameSuggestionDTO;
 
 import java.util.List;
 
@@ -8,8 +13,11 @@ public interface GameService {
     List<GameDTO> getAllActiveGames();
     GameDTO getGameById(Long id);
     List<GameDTO> searchGames(String query);
+    List<GameSuggestionDTO> suggestGames(String prefix, Integer limit);
     List<GameDTO> getGamesByGenre(String genre);
     List<GameDTO> getGamesByPlatform(String platform);
+    GamePageDTO getGamePage(GamePageRequest request);
+    GameFilterResultDTO filterGames(GameFilterRequest request);
     GameDTO createGame(GameDTO gameDTO);
     GameDTO updateGame(Long id, GameDTO gameDTO);
     void deleteGame(Long id);
@@ -1,14 +1,27 @@
 package com.example.gamestore.service;
 
 import com.example.gamestore.dto.GameDTO;
+import com.example.gamestore.dto.GameFilterRequest;
+import com.example.gamestore.dto.GameFilterResultDTO;
+import com.example.gamestore.dto.GamePageDTO;
+import com.example.gamestore.dto.GamePageRequest;
+import com.example.gamestore.dto.GameSuggestionDTO;
 import com.example.gamestore.model.Game;
 import com.example.gamestore.repository.GameRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
 
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
@@ -16,55 +29,88 @@ import java.util.stream.Collectors;
 @Slf4j
 public class GameServiceImpl implements GameService {
 
+    private static final int DEFAULT_PAGE_SIZE = 20;
+    private static final int MAX_PAGE_SIZE = 100;
+
     private final GameRepository gameRepository;
+    private final GameCatalogCache catalogCache;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
-    @Transactional(readOnly = true)
     public List<GameDTO> getAllActiveGames() {
-        log.info("Getting all active games from database...");
-
-        List<Game> games = gameRepository.findByActiveTrue();
-        log.info("Found {} active games in database", games.size());
-
-        return games.stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        List<GameDTO> games = copies(catalog().getGames());
+        log.debug("Serving {} active games from catalog snapshot", games.size());
+        return games;
     }
 
     @Override
-    @Transactional(readOnly = true)
     public GameDTO getGameById(Long id) {
-        Game game = gameRepository.findByIdAndActiveTrue(id)
+        return catalog().findById(id)
+                .map(CatalogGame::toDTO)
                 .orElseThrow(() -> new RuntimeException("Game not found with id: " + id));
-
-        return convertToDTO(game);
     }
 
     @Override
-    @Transactional(readOnly = true)
     public List<GameDTO> searchGames(String query) {
-        List<Game> games = gameRepository.findByTitleContainingIgnoreCaseAndActiveTrue(query);
-        return games.stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        return copies(searchIndex().search(query));
+    }
+
+    @Override
+    public List<GameSuggestionDTO> suggestGames(String prefix, Integer limit) {
+        int size = limit == null ? GameSuggestionTrie.MAX_SUGGESTIONS
+                : Math.min(Math.max(limit, 1), GameSuggestionTrie.MAX_SUGGESTIONS);
+        return catalog().view(GameSuggestionTrie.class, GameSuggestionTrie::build).suggest(prefix, size);
     }
 
     @Override
-    @Transactional(readOnly = true)
     public List<GameDTO> getGamesByGenre(String genre) {
-        List<Game> games = gameRepository.findByGenreAndActiveTrue(genre);
-        return games.stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        return copies(catalog().findByGenre(genre));
     }
 
     @Override
-    @Transactional(readOnly = true)
     public List<GameDTO> getGamesByPlatform(String platform) {
-        List<Game> games = gameRepository.findByPlatformAndActiveTrue(platform);
-        return games.stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        return copies(catalog().findByPlatform(platform));
+    }
+
+    /**
+     * A genre alone pages through that genre's sorted list. Platform or query filters are
+     * resolved to a bitmap first, so a page never tests games that cannot match.
+     */
+    @Override
+    public GamePageDTO getGamePage(GamePageRequest request) {
+        GameSort sort = GameSort.from(request.getSort());
+        boolean descending = "desc".equalsIgnoreCase(request.getDirection());
+        GameCatalogSnapshot snapshot = catalog();
+
+        String platform = blankToNull(request.getPlatform());
+        String query = blankToNull(request.getQuery());
+        if (platform == null && query == null) {
+            return page(sortedGames(snapshot, sort, request.getGenre()), null,
+                    sort, descending, request.getCursor(), request.getSize());
+        }
+
+        GameFacetIndex facets = facetIndex(snapshot);
+        Set<Long> ids = query != null ? searchIndex(snapshot).matchingIds(query) : null;
+        BitSet matches = facets.matching(blankToNull(request.getGenre()), platform, ids);
+        return page(sortedGames(snapshot, sort, null), inSortOrder(snapshot, facets, sort, matches),
+                sort, descending, request.getCursor(), request.getSize());
+    }
+
+    @Override
+    public GameFilterResultDTO filterGames(GameFilterRequest request) {
+        GameSort sort = GameSort.from(request.getSort());
+        boolean descending = "desc".equalsIgnoreCase(request.getDirection());
+
+        GameCatalogSnapshot snapshot = catalog();
+        GameFacetIndex facets = facetIndex(snapshot);
+        GameFacetIndex.Result result = facets.filter(request);
+
+        GamePageDTO page = page(sortedGames(snapshot, sort, null),
+                inSortOrder(snapshot, facets, sort, result.matches()),
+                sort, descending, request.getCursor(), request.getSize());
+
+        return new GameFilterResultDTO(page, result.matches().cardinality(), result.genreCounts(),
+                result.platformCounts(), result.priceBucketCounts(), result.discountedCount());
     }
 
     @Override
@@ -73,6 +119,7 @@ public class GameServiceImpl implements GameService {
         Game game = convertToEntity(gameDTO);
         game.setActive(true);
         Game savedGame = gameRepository.save(game);
+        eventPublisher.publishEvent(new GameCatalogChangedEvent(savedGame.getId()));
         return convertToDTO(savedGame);
     }
 
@@ -97,6 +144,7 @@ public class GameServiceImpl implements GameService {
         }
 
         Game updatedGame = gameRepository.save(existingGame);
+        eventPublisher.publishEvent(new GameCatalogChangedEvent(id));
         return convertToDTO(updatedGame);
     }
 
@@ -107,9 +155,128 @@ public class GameServiceImpl implements GameService {
                 .orElseThrow(() -> new RuntimeException("Game not found with id: " + id));
         game.setActive(false);
         gameRepository.save(game);
+        eventPublisher.publishEvent(new GameCatalogChangedEvent(id));
         log.info("Soft deleted game with id: {}", id);
     }
 
+    /**
+     * Not part of {@link GameService}: the snapshot is an internal cache type, shared only with
+     * the catalog's own collaborators in this package.
+     */
+    public GameCatalogSnapshot getCatalogSnapshot() {
+        return catalog();
+    }
+
+    // Not read-only: the reload must see the commit that raised the event, so it stays on the primary
+    @TransactionalEventListener
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void onCatalogChanged(GameCatalogChangedEvent event) {
+        catalogCache.refresh(event.gameId(),
+                () -> gameRepository.findActiveByIdWithGenres(event.gameId()).map(this::convertToDTO));
+    }
+
+    /**
+     * {@code matches} holds positions in {@code sorted}, or is {@code null} when every game
+     * matches. Either way a page costs its own size plus one lookahead, not a scan.
+     */
+    private GamePageDTO page(List<CatalogGame> sorted, BitSet matches, GameSort sort,
+                             boolean descending, String cursor, Integer requestedSize) {
+        int size = requestedSize == null ? DEFAULT_PAGE_SIZE
+                : Math.min(Math.max(requestedSize, 1), MAX_PAGE_SIZE);
+        int step = descending ? -1 : 1;
+
+        int index = cursor == null || cursor.isBlank()
+                ? (descending ? sorted.size() - 1 : 0)
+                : resumeIndex(sorted, sort, sort.decodeCursor(cursor, descending), descending);
+
+        List<GameDTO> items = new ArrayList<>(size);
+        CatalogGame last = null;
+        int match = nextMatch(sorted, matches, index, descending);
+        while (match >= 0 && items.size() < size) {
+            last = sorted.get(match);
+            items.add(last.toDTO());
+            match = nextMatch(sorted, matches, match + step, descending);
+        }
+
+        boolean hasMore = match >= 0;
+        String nextCursor = hasMore ? sort.encodeCursor(last, descending) : null;
+        return new GamePageDTO(items, nextCursor, hasMore, items.size());
+    }
+
+    private int nextMatch(List<CatalogGame> sorted, BitSet matches, int from, boolean descending) {
+        if (from < 0 || from >= sorted.size()) {
+            return -1;
+        }
+        if (matches == null) {
+            return from;
+        }
+        return descending ? matches.previousSetBit(from) : matches.nextSetBit(from);
+    }
+
+    private BitSet inSortOrder(GameCatalogSnapshot snapshot, GameFacetIndex facets, GameSort sort, BitSet matches) {
+        int[] ranks = snapshot.view("ranks:" + sort, current -> facets.ranks(sortedGames(current, sort, null)));
+        return facets.inOrder(matches, ranks);
+    }
+
+    private GameFacetIndex facetIndex(GameCatalogSnapshot snapshot) {
+        return snapshot.view(GameFacetIndex.class, GameFacetIndex::build);
+    }
+
+    private List<CatalogGame> sortedGames(GameCatalogSnapshot snapshot, GameSort sort, String genre) {
+        if (genre == null || genre.isBlank()) {
+            return snapshot.view("sorted:" + sort, current -> sortedCopy(current.getGames(), sort));
+        }
+        if (!snapshot.getGamesByGenre().containsKey(genre)) {
+            return List.of();
+        }
+        return snapshot.view("sorted:" + sort + ":genre:" + genre,
+                current -> sortedCopy(current.findByGenre(genre), sort));
+    }
+
+    private List<CatalogGame> sortedCopy(List<CatalogGame> games, GameSort sort) {
+        List<CatalogGame> sorted = new ArrayList<>(games);
+        sorted.sort(sort.comparator());
+        return Collections.unmodifiableList(sorted);
+    }
+
+    private int resumeIndex(List<CatalogGame> sorted, GameSort sort, CatalogGame last, boolean descending) {
+        int position = Collections.binarySearch(sorted, last, sort.comparator());
+        if (position >= 0) {
+            return descending ? position - 1 : position + 1;
+        }
+        int insertionPoint = -position - 1;
+        return descending ? insertionPoint - 1 : insertionPoint;
+    }
+
+    private GameSearchIndex searchIndex() {
+        return searchIndex(catalog());
+    }
+
+    private GameSearchIndex searchIndex(GameCatalogSnapshot snapshot) {
+        return snapshot.view(GameSearchIndex.class, GameSearchIndex::build);
+    }
+
+    private static List<GameDTO> copies(List<CatalogGame> games) {
+        List<GameDTO> copies = new ArrayList<>(games.size());
+        for (CatalogGame game : games) {
+            copies.add(game.toDTO());
+        }
+        return copies;
+    }
+
+    private static String blankToNull(String value) {
+        return value == null || value.isBlank() ? null : value;
+    }
+
+    private GameCatalogSnapshot catalog() {
+        return catalogCache.get(() -> {
+            log.info("Loading active games from database into catalog snapshot...");
+            return gameRepository.findActiveWithGenres().stream()
+                    .map(this::convertToDTO)
+                    .collect(Collectors.toList());
+        });
+    }
+
     private GameDTO convertToDTO(Game game) {
         GameDTO dto = new GameDTO();
         dto.setId(game.getId());
@@ -122,7 +289,7 @@ public class GameServiceImpl implements GameService {
         dto.setPrice(game.getPrice());
         dto.setDiscountPrice(game.getDiscountPrice());
         dto.setImageUrl(game.getImageUrl());
-        dto.setGenres(game.getGenres());
+        dto.setGenres(game.getGenres() != null ? new HashSet<>(game.getGenres()) : new HashSet<>());
         dto.setFinalPrice(game.getFinalPrice());
         dto.setHasDiscount(game.hasDiscount());
         dto.setDiscountPercentage(game.getDiscountPercentage());
@@ -0,0 +1,93 @@
+package com.example.gamestore.service;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Base64;
+import java.util.Comparator;
+
+/**
+ * Sort keys supported by the paged catalog. Every ordering ends with the game id,
+ * so a (key, id) pair identifies a unique position that a cursor can resume from.
+ */
+public enum GameSort {
+    ID(Comparator.comparing(CatalogGame::id)),
+    PRICE(Comparator.comparing(CatalogGame::finalPrice, Comparator.nullsLast(Comparator.<BigDecimal>naturalOrder()))
+            .thenComparing(CatalogGame::id)),
+    RELEASE_DATE(Comparator.comparing(CatalogGame::releaseDate, Comparator.nullsLast(Comparator.<LocalDate>naturalOrder()))
+            .thenComparing(CatalogGame::id)),
+    TITLE(Comparator.comparing(CatalogGame::title, Comparator.nullsLast(String.CASE_INSENSITIVE_ORDER))
+            .thenComparing(CatalogGame::id));
+
+    private static final String SEPARATOR = "|";
+
+    private final Comparator<CatalogGame> comparator;
+
+    GameSort(Comparator<CatalogGame> comparator) {
+        this.comparator = comparator;
+    }
+
+    public Comparator<CatalogGame> comparator() {
+        return comparator;
+    }
+
+    public static GameSort from(String value) {
+        if (value == null || value.isBlank()) {
+            return ID;
+        }
+        String normalized = value.replace("_", "").replace("-", "").trim();
+        for (GameSort sort : values()) {
+            if (sort.name().replace("_", "").equalsIgnoreCase(normalized)) {
+                return sort;
+            }
+        }
+        throw new RuntimeException("Invalid sort: " + value);
+    }
+
+    public String encodeCursor(CatalogGame last, boolean descending) {
+        String raw = name() + SEPARATOR + (descending ? "desc" : "asc") + SEPARATOR + last.id()
+                + SEPARATOR + keyOf(last);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Rebuilds the last game of the previous page from a cursor. Only the id and the
+     * sort key are populated, which is all the comparator needs to locate it.
+     */
+    public CatalogGame decodeCursor(String cursor, boolean descending) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|", 4);
+            if (parts.length != 4 || !name().equals(parts[0])
+                    || !(descending ? "desc" : "asc").equals(parts[1])) {
+                throw new IllegalArgumentException("Cursor does not match sort");
+            }
+
+            Long id = Long.valueOf(parts[2]);
+            String key = parts[3].isEmpty() ? null : parts[3];
+            return switch (this) {
+                case ID -> probe(id, null, null, null);
+                case PRICE -> probe(id, null, null, key != null ? new BigDecimal(key) : null);
+                case RELEASE_DATE -> probe(id, null, key != null ? LocalDate.parse(key) : null, null);
+                case TITLE -> probe(id, key, null, null);
+            };
+        } catch (RuntimeException e) {
+            throw new RuntimeException("Invalid cursor: " + cursor);
+        }
+    }
+
+    private static CatalogGame probe(Long id, String title, LocalDate releaseDate, BigDecimal finalPrice) {
+        return new CatalogGame(id, title, null, null, null, releaseDate, null, null,
+                null, null, null, finalPrice, false, null);
+    }
+
+    private String keyOf(CatalogGame game) {
+        Object key = switch (this) {
+            case ID -> null;
+            case PRICE -> game.finalPrice() != null ? game.finalPrice().toPlainString() : null;
+            case RELEASE_DATE -> game.releaseDate();
+            case TITLE -> game.title();
+        };
+        return key != null ? key.toString() : "";
+    }
+}
@@ -0,0 +1,155 @@
+package com.example.gamestore.service;
+
+import com.example.gamestore.dto.GameSuggestionDTO;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Prefix trie over titles, title words, developers and publishers of the active catalog.
+ * Every node keeps its best suggestions precomputed, so a lookup is a walk down the prefix
+ * followed by a copy of at most {@link #MAX_SUGGESTIONS} entries.
+ */
+public final class GameSuggestionTrie {
+
+    public static final int MAX_SUGGESTIONS = 10;
+
+    private static final int TITLE = 0;
+    private static final int TITLE_WORD = 1;
+    private static final int COMPANY = 2;
+
+    private static final Comparator<Candidate> RANKING = Comparator
+            .comparingInt(Candidate::source)
+            .thenComparingInt(candidate -> candidate.suggestion().getTitle().length())
+            .thenComparing(candidate -> candidate.suggestion().getTitle(), String.CASE_INSENSITIVE_ORDER)
+            .thenComparing(candidate -> candidate.suggestion().getId());
+
+    private final Node root = new Node();
+
+    private GameSuggestionTrie() {
+    }
+
+    public static GameSuggestionTrie build(GameCatalogSnapshot snapshot) {
+        GameSuggestionTrie trie = new GameSuggestionTrie();
+        for (CatalogGame game : snapshot.getGames()) {
+            if (game.title() == null) {
+                continue;
+            }
+            GameSuggestionDTO suggestion = new GameSuggestionDTO(game.id(), game.title(), game.imageUrl());
+
+            String title = normalize(game.title());
+            trie.insert(title, new Candidate(suggestion, TITLE));
+            for (int i = 1; i < title.length(); i++) {
+                if (title.charAt(i - 1) == ' ' && title.charAt(i) != ' ') {
+                    trie.insert(title.substring(i), new Candidate(suggestion, TITLE_WORD));
+                }
+            }
+            if (game.developer() != null) {
+                trie.insert(normalize(game.developer()), new Candidate(suggestion, COMPANY));
+            }
+            if (game.publisher() != null) {
+                trie.insert(normalize(game.publisher()), new Candidate(suggestion, COMPANY));
+            }
+        }
+        return trie;
+    }
+
+    public List<GameSuggestionDTO> suggest(String prefix, int limit) {
+        if (prefix == null || prefix.isBlank()) {
+            return List.of();
+        }
+
+        Node node = root;
+        String normalized = normalize(prefix);
+        for (int i = 0; i < normalized.length() && node != null; i++) {
+            node = node.child(normalized.charAt(i));
+        }
+        if (node == null) {
+            return List.of();
+        }
+
+        int count = Math.min(limit, node.size);
+        List<GameSuggestionDTO> result = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            result.add(node.top[i].suggestion());
+        }
+        return result;
+    }
+
+    private void insert(String key, Candidate candidate) {
+        Node node = root;
+        for (int i = 0; i < key.length(); i++) {
+            node = node.childOrCreate(key.charAt(i));
+            node.offer(candidate);
+        }
+    }
+
+    private static String normalize(String text) {
+        return text.trim().toLowerCase(Locale.ROOT).replaceAll("\\s+", " ");
+    }
+
+    private record Candidate(GameSuggestionDTO suggestion, int source) {
+    }
+
+    private static final class Node {
+        private char[] keys = new char[0];
+        private Node[] children = new Node[0];
+        private final Candidate[] top = new Candidate[MAX_SUGGESTIONS];
+        private int size;
+
+        Node child(char key) {
+            int index = Arrays.binarySearch(keys, key);
+            return index >= 0 ? children[index] : null;
+        }
+
+        Node childOrCreate(char key) {
+            int index = Arrays.binarySearch(keys, key);
+            if (index >= 0) {
+                return children[index];
+            }
+
+            int insertAt = -index - 1;
+            char[] newKeys = new char[keys.length + 1];
+            Node[] newChildren = new Node[children.length + 1];
+            System.arraycopy(keys, 0, newKeys, 0, insertAt);
+            System.arraycopy(children, 0, newChildren, 0, insertAt);
+            newKeys[insertAt] = key;
+            newChildren[insertAt] = new Node();
+            System.arraycopy(keys, insertAt, newKeys, insertAt + 1, keys.length - insertAt);
+            System.arraycopy(children, insertAt, newChildren, insertAt + 1, children.length - insertAt);
+            keys = newKeys;
+            children = newChildren;
+            return newChildren[insertAt];
+        }
+
+        void offer(Candidate candidate) {
+            for (int i = 0; i < size; i++) {
+                if (top[i].suggestion().getId().equals(candidate.suggestion().getId())) {
+                    if (RANKING.compare(candidate, top[i]) >= 0) {
+                        return;
+                    }
+                    System.arraycopy(top, i + 1, top, i, size - i - 1);
+                    size--;
+                    break;
+                }
+            }
+
+            if (size == MAX_SUGGESTIONS && RANKING.compare(candidate, top[size - 1]) >= 0) {
+                return;
+            }
+
+            int position = size < MAX_SUGGESTIONS ? size : MAX_SUGGESTIONS - 1;
+            while (position > 0 && RANKING.compare(candidate, top[position - 1]) < 0) {
+                top[position] = top[position - 1];
+                position--;
+            }
+            top[position] = candidate;
+            if (size < MAX_SUGGESTIONS) {
+                size++;
+            }
+        }
+    }
+}
@@ -1,6 +1,11 @@
 package com.example.gamestore.service;
 
 import com.example.gamestore.dto.OrderDTO;
+import com.example.gamestore.dto.OrderPageDTO;
+import com.example.gamestore.dto.OrderPageRequest;
+
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.List;
 
 public interface OrderService {
@@ -8,5 +13,6 @@ public interface OrderService {
     List<OrderDTO> getUserOrders(Long userId);
     OrderDTO getOrder(Long userId, Long orderId);
     OrderDTO updateOrderStatus(Long orderId, String status);
-    List<OrderDTO> getAllOrders();
+    OrderPageDTO getOrderPage(OrderPageRequest request);
+    void exportOrders(OrderPageRequest request, boolean csv, OutputStream out) throws IOException;
 }
\ No newline at end of file
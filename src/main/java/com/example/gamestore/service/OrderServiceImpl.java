@@ -1,18 +1,35 @@
 package com.example.gamestore.service;
 
 import com.example.gamestore.dto.OrderDTO;
+import com.example.gamestore.dto.OrderExportRowDTO;
 import com.example.gamestore.dto.OrderItemDTO;
+import com.example.gamestore.dto.OrderPageDTO;
+import com.example.gamestore.dto.OrderPageRequest;
 import com.example.gamestore.model.*;
 import com.example.gamestore.repository.*;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Iterator;
 import java.util.List;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
@@ -20,37 +37,50 @@ import java.util.stream.Collectors;
 public class OrderServiceImpl implements OrderService {
 
     private final OrderRepository orderRepository;
-    private final UserRepository userRepository;
     private final CartRepository cartRepository;
     private final CartItemRepository cartItemRepository;
-    private final GameRepository gameRepository;
-
+    private final ObjectMapper objectMapper;
+    private final ApplicationEventPublisher eventPublisher;
+
+    private static final int DEFAULT_PAGE_SIZE = 20;
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final LocalDateTime MIN_ORDER_DATE = LocalDateTime.of(1970, 1, 1, 0, 0);
+    private static final LocalDateTime MAX_ORDER_DATE = LocalDateTime.of(9999, 12, 31, 0, 0);
+    private static final String CSV_HEADER = "order_id,order_date,status,total_amount,user_id,user_name,user_email,"
+            + "game_id,game_title,quantity,price_at_purchase";
+
+    /**
+     * Checkout in a fixed number of statements: one fetch of cart, user, items and games,
+     * a batched insert of the order and its items, a bulk delete of the cart items and an
+     * update of the cart total.
+     */
     @Override
     @Transactional
     public OrderDTO createOrder(Long userId) {
         log.info("Creating order for user: {}", userId);
 
-        Cart cart = cartRepository.findByUserId(userId)
+        Cart cart = cartRepository.findForCheckout(userId)
                 .orElseThrow(() -> new RuntimeException("Cart not found for user: " + userId));
 
         if (cart.getItems() == null || cart.getItems().isEmpty()) {
             throw new RuntimeException("Cart is empty");
         }
 
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new RuntimeException("User not found: " + userId));
+        List<String> unavailable = cart.getItems().stream()
+                .map(CartItem::getGame)
+                .filter(game -> Boolean.FALSE.equals(game.getActive()))
+                .map(Game::getTitle)
+                .collect(Collectors.toList());
+        if (!unavailable.isEmpty()) {
+            throw new RuntimeException("Game is not available: " + String.join(", ", unavailable));
+        }
 
         Order order = new Order();
-        order.setUser(user);
-        order.setItems(new ArrayList<>());
+        order.setUser(cart.getUser());
+        order.setItems(new ArrayList<>(cart.getItems().size()));
 
         for (CartItem cartItem : cart.getItems()) {
-            Game game = gameRepository.findById(cartItem.getGame().getId())
-                    .orElseThrow(() -> new RuntimeException("Game not found: " + cartItem.getGame().getId()));
-
-            if (game.getActive() != null && !game.getActive()) {
-                throw new RuntimeException("Game is not available: " + game.getTitle());
-            }
+            Game game = cartItem.getGame();
 
             OrderItem orderItem = new OrderItem();
             orderItem.setOrder(order);
@@ -70,7 +100,8 @@ public class OrderServiceImpl implements OrderService {
 
         cartItemRepository.deleteByCartId(cart.getId());
         cart.setTotalPrice(BigDecimal.ZERO);
-        cartRepository.save(cart);
+        cart.setUpdatedAt(LocalDateTime.now());
+        eventPublisher.publishEvent(new CartChangedEvent(userId, 0, BigDecimal.ZERO));
         log.info("Cart cleared for user: {}", userId);
 
         return convertToDTO(savedOrder);
@@ -94,7 +125,7 @@ public class OrderServiceImpl implements OrderService {
     @Transactional(readOnly = true)
     public OrderDTO getOrder(Long userId, Long orderId) {
         log.info("Getting order {} for user: {}", orderId, userId);
-        Order order = orderRepository.findById(orderId)
+        Order order = orderRepository.findWithItemsById(orderId)
                 .orElseThrow(() -> new RuntimeException("Order not found with id: " + orderId));
 
         if (!order.getUser().getId().equals(userId)) {
@@ -108,7 +139,7 @@ public class OrderServiceImpl implements OrderService {
     @Transactional
     public OrderDTO updateOrderStatus(Long orderId, String status) {
         log.info("Updating order {} status to: {}", orderId, status);
-        Order order = orderRepository.findById(orderId)
+        Order order = orderRepository.findWithItemsById(orderId)
                 .orElseThrow(() -> new RuntimeException("Order not found with id: " + orderId));
 
         try {
@@ -122,18 +153,108 @@ public class OrderServiceImpl implements OrderService {
         }
     }
 
+    /**
+     * Keyset page over (orderDate, id), newest first. The first query picks the page's ids,
+     * the second loads just those orders with their items, games and users.
+     */
     @Override
     @Transactional(readOnly = true)
-    public List<OrderDTO> getAllOrders() {
-        log.info("Getting all orders");
-        List<Order> orders = orderRepository.findAllByOrderByOrderDateDesc();
+    public OrderPageDTO getOrderPage(OrderPageRequest request) {
+        int size = request.getSize() == null ? DEFAULT_PAGE_SIZE
+                : Math.min(Math.max(request.getSize(), 1), MAX_PAGE_SIZE);
+        LocalDateTime from = request.getFrom() != null ? request.getFrom() : MIN_ORDER_DATE;
+        LocalDateTime to = request.getTo() != null ? request.getTo() : MAX_ORDER_DATE;
+
+        LocalDateTime afterDate = to;
+        Long afterId = Long.MAX_VALUE;
+        if (request.getCursor() != null && !request.getCursor().isBlank()) {
+            try {
+                String raw = new String(Base64.getUrlDecoder().decode(request.getCursor()), StandardCharsets.UTF_8);
+                String[] parts = raw.split("\\|", 2);
+                afterDate = LocalDateTime.parse(parts[0]);
+                afterId = Long.valueOf(parts[1]);
+            } catch (RuntimeException e) {
+                throw new RuntimeException("Invalid cursor: " + request.getCursor());
+            }
+        }
 
-        List<OrderDTO> orderDTOs = orders.stream()
+        List<Long> ids = orderRepository.findPageIds(parseStatuses(request.getStatuses()), from, to,
+                afterDate, afterId, Limit.of(size + 1));
+        boolean hasMore = ids.size() > size;
+        if (hasMore) {
+            ids = ids.subList(0, size);
+        }
+
+        List<OrderDTO> items = ids.isEmpty() ? List.of() : orderRepository.findWithItemsByIdIn(ids).stream()
                 .map(this::convertToDTO)
                 .collect(Collectors.toList());
 
-        log.info("Found {} total orders", orderDTOs.size());
-        return orderDTOs;
+        String nextCursor = null;
+        if (hasMore) {
+            OrderDTO last = items.get(items.size() - 1);
+            String raw = last.getOrderDate() + "|" + last.getId();
+            nextCursor = Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+        }
+        return new OrderPageDTO(items, nextCursor, hasMore, items.size());
+    }
+
+    /**
+     * Writes one line per order item as rows arrive from a server-side cursor. Rows are
+     * DTO projections, so nothing accumulates in the persistence context.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public void exportOrders(OrderPageRequest request, boolean csv, OutputStream out) throws IOException {
+        LocalDateTime from = request.getFrom() != null ? request.getFrom() : MIN_ORDER_DATE;
+        LocalDateTime to = request.getTo() != null ? request.getTo() : MAX_ORDER_DATE;
+
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        if (csv) {
+            writer.write(CSV_HEADER);
+            writer.write('\n');
+        }
+        try (Stream<OrderExportRowDTO> rows = orderRepository.streamExportRows(
+                parseStatuses(request.getStatuses()), from, to)) {
+            Iterator<OrderExportRowDTO> iterator = rows.iterator();
+            while (iterator.hasNext()) {
+                OrderExportRowDTO row = iterator.next();
+                writer.write(csv ? toCsvLine(row) : objectMapper.writeValueAsString(row));
+                writer.write('\n');
+            }
+        }
+        writer.flush();
+    }
+
+    private List<Order.OrderStatus> parseStatuses(List<String> statuses) {
+        if (statuses == null || statuses.isEmpty()) {
+            return Arrays.asList(Order.OrderStatus.values());
+        }
+        try {
+            return statuses.stream()
+                    .map(status -> Order.OrderStatus.valueOf(status.toUpperCase()))
+                    .collect(Collectors.toList());
+        } catch (IllegalArgumentException e) {
+            throw new RuntimeException("Invalid order status in: " + statuses);
+        }
+    }
+
+    private String toCsvLine(OrderExportRowDTO row) {
+        return Stream.of(row.getOrderId(), row.getOrderDate(), row.getStatus(), row.getTotalAmount(),
+                        row.getUserId(), row.getUserName(), row.getUserEmail(), row.getGameId(),
+                        row.getGameTitle(), row.getQuantity(), row.getPriceAtPurchase())
+                .map(this::csvField)
+                .collect(Collectors.joining(","));
+    }
+
+    private String csvField(Object value) {
+        if (value == null) {
+            return "";
+        }
+        String text = value.toString();
+        if (text.contains(",") || text.contains("\"") || text.contains("\n") || text.contains("\r")) {
+            return "\"" + text.replace("\"", "\"\"") + "\"";
+        }
+        return text;
     }
 
     private OrderDTO convertToDTO(Order order) {
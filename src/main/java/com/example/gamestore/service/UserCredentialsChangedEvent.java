@@ -0,0 +1,4 @@
+package com.example.gamestore.service;
+
+public record UserCredentialsChangedEvent(Long userId) {
+}
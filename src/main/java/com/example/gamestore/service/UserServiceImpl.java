@@ -7,11 +7,15 @@ import com.example.gamestore.model.User;
 import com.example.gamestore.repository.CartRepository;
 import com.example.gamestore.repository.RoleRepository;
 import com.example.gamestore.repository.UserRepository;
+import com.example.gamestore.security.UserStatusCache;
+import com.example.gamestore.security.VerifiedTokenCache;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
 
 import java.math.BigDecimal;
 import java.util.HashSet;
@@ -29,6 +33,9 @@ public class UserServiceImpl implements UserService {
     private final RoleRepository roleRepository;
     private final CartRepository cartRepository;
     private final PasswordEncoder passwordEncoder;
+    private final UserStatusCache userStatusCache;
+    private final VerifiedTokenCache verifiedTokenCache;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     @Transactional(readOnly = true)
@@ -97,6 +104,7 @@ public class UserServiceImpl implements UserService {
 
         User updatedUser = userRepository.save(user);
         createCartIfNotExists(updatedUser);
+        eventPublisher.publishEvent(new UserCredentialsChangedEvent(id));
 
         return convertToDTO(updatedUser);
     }
@@ -109,6 +117,7 @@ public class UserServiceImpl implements UserService {
             throw new RuntimeException("User not found with id: " + id);
         }
         userRepository.deleteById(id);
+        eventPublisher.publishEvent(new UserCredentialsChangedEvent(id));
     }
 
     @Override
@@ -123,6 +132,13 @@ public class UserServiceImpl implements UserService {
         return userRepository.existsByEmail(email);
     }
 
+    // After commit: evicting earlier lets a concurrent request re-cache the row being replaced
+    @TransactionalEventListener
+    public void onCredentialsChanged(UserCredentialsChangedEvent event) {
+        userStatusCache.evict(event.userId());
+        verifiedTokenCache.evictUser(event.userId());
+    }
+
     private void createCartIfNotExists(User user) {
         if (cartRepository.findByUserId(user.getId()).isEmpty()) {
             Cart cart = new Cart();
@@ -0,0 +1,784 @@
+package com.example.gamestore.service;
+
+import com.example.gamestore.dto.CartBatchRequest;
+import com.example.gamestore.dto.CartDTO;
+import com.example.gamestore.dto.CartItemDTO;
+import com.example.gamestore.dto.CartSummaryDTO;
+import com.example.gamestore.model.Cart;
+import com.example.gamestore.model.CartItem;
+import com.example.gamestore.repository.CartItemRepository;
+import com.example.gamestore.repository.CartRepository;
+import com.example.gamestore.repository.GameRepository;
+import com.example.gamestore.repository.UserRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.SimpleDriverDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Optional cart store that keeps each user's cart in memory and writes it to
+ * {@code carts}/{@code cart_items} in batches. Every change is appended to a
+ * {@link CartChangeLog} on local disk before it is acknowledged, and the log is replayed at
+ * startup, so buffered changes survive a restart.
+ * <p>
+ * Carts are flushed every {@code app.cart.write-behind.flush-interval-ms}, on shutdown, and
+ * for a single user right before checkout reads the cart. In this mode a cart item's id is
+ * the id of its game, since buffered lines have no database id yet.
+ * <p>
+ * Flushes replace a cart's rows with this instance's copy, so only one instance may buffer
+ * carts. A {@link WriteBehindOwnerLock} enforces that: startup fails while another instance
+ * owns the store, and flushes stop, keeping changes in memory and in the log, while this
+ * instance cannot confirm it still owns it.
+ */
+@Service
+@Primary
+@ConditionalOnProperty(name = "app.cart.write-behind.enabled", havingValue = "true")
+@Slf4j
+public class WriteBehindCartService implements CartService {
+
+    private static final int MAX_BATCH_OPERATIONS = 100;
+    private static final int FLUSH_CHUNK_SIZE = 50;
+    private static final int MAX_FAILED_FLUSHES = 10;
+
+    private final CartServiceImpl databaseCartService;
+    private final CartRepository cartRepository;
+    private final CartItemRepository cartItemRepository;
+    private final UserRepository userRepository;
+    private final GameRepository gameRepository;
+    private final GameServiceImpl gameService;
+    private final TransactionTemplate readTransaction;
+    private final TransactionTemplate writeTransaction;
+    private final CartChangeLog changeLog;
+    private final WriteBehindOwnerLock ownerLock;
+    private final Duration idleEviction;
+    private final Counter flushFailures;
+    private final Counter droppedCarts;
+
+    private final ConcurrentMap<Long, UserCart> carts = new ConcurrentHashMap<>();
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    public WriteBehindCartService(CartServiceImpl databaseCartService,
+                                  CartRepository cartRepository,
+                                  CartItemRepository cartItemRepository,
+                                  UserRepository userRepository,
+                                  GameRepository gameRepository,
+                                  GameServiceImpl gameService,
+                                  PlatformTransactionManager transactionManager,
+                                  MeterRegistry meterRegistry,
+                                  DataSourceProperties dataSourceProperties,
+                                  @Value("${app.cart.write-behind.log-dir:data/cart-log}") String logDir,
+                                  @Value("${app.cart.write-behind.fsync:true}") boolean fsync,
+                                  @Value("${app.cart.write-behind.idle-eviction-minutes:30}") long idleEvictionMinutes) {
+        this.databaseCartService = databaseCartService;
+        this.cartRepository = cartRepository;
+        this.cartItemRepository = cartItemRepository;
+        this.userRepository = userRepository;
+        this.gameRepository = gameRepository;
+        this.gameService = gameService;
+        this.readTransaction = new TransactionTemplate(transactionManager);
+        this.readTransaction.setReadOnly(true);
+        this.writeTransaction = new TransactionTemplate(transactionManager);
+        this.writeTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.changeLog = new CartChangeLog(Path.of(logDir), fsync);
+        this.ownerLock = new WriteBehindOwnerLock(dataSourceProperties.initializeDataSourceBuilder()
+                .type(SimpleDriverDataSource.class)
+                .build());
+        this.idleEviction = Duration.ofMinutes(idleEvictionMinutes);
+        this.flushFailures = Counter.builder("cart.write-behind.flush.failed")
+                .description("Carts that could not be written to the database and stay buffered")
+                .register(meterRegistry);
+        this.droppedCarts = Counter.builder("cart.write-behind.dropped")
+                .description("Buffered carts given up on after repeated flush failures")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void recover() {
+        ownerLock.ensureHeld();
+        int[] replayed = {0};
+        changeLog.replay(change -> {
+            UserCart cart = cart(change.userId());
+            if (change.isClear()) {
+                cart.lines.clear();
+            } else if (change.quantity() > 0) {
+                cart.lines.put(change.gameId(), new Line(change.quantity(), change.price()));
+            } else {
+                cart.lines.remove(change.gameId());
+            }
+            cart.version++;
+            replayed[0]++;
+        });
+        if (replayed[0] > 0) {
+            log.info("Replayed {} cart changes from the change log", replayed[0]);
+        }
+        flushAll();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flushAll();
+        changeLog.close();
+        ownerLock.close();
+    }
+
+    @Override
+    public CartDTO getCartByUserId(Long userId) {
+        validateUserId(userId);
+        return withCart(userId, this::convertToDTO);
+    }
+
+    @Override
+    public CartDTO addItemToCart(Long userId, Long gameId, Integer quantity) {
+        log.info("Adding item to cart - user: {}, game: {}, quantity: {}", userId, gameId, quantity);
+        validateUserId(userId);
+        validateQuantity(quantity);
+        CatalogGame game = getAvailableGame(gameId);
+
+        return withCart(userId, cart -> {
+            Line line = cart.lines.get(gameId);
+            int current = line != null ? line.quantity() : 0;
+            setLine(cart, gameId, current + quantity, line != null ? line.price() : itemPrice(game));
+            return convertToDTO(cart);
+        });
+    }
+
+    @Override
+    public CartDTO updateCartItem(Long userId, Long itemId, Integer quantity) {
+        log.info("Updating cart item - user: {}, item: {}, quantity: {}", userId, itemId, quantity);
+        validateUserId(userId);
+
+        return withCart(userId, cart -> {
+            Line line = getLine(cart, itemId);
+            setLine(cart, itemId, quantity != null ? quantity : 0, line.price());
+            return convertToDTO(cart);
+        });
+    }
+
+    @Override
+    public void removeItemFromCart(Long userId, Long itemId) {
+        log.info("Removing item from cart - user: {}, item: {}", userId, itemId);
+        validateUserId(userId);
+
+        withCart(userId, cart -> {
+            Line line = getLine(cart, itemId);
+            setLine(cart, itemId, 0, line.price());
+            return null;
+        });
+    }
+
+    @Override
+    public void clearCart(Long userId) {
+        log.info("Clearing cart for user: {}", userId);
+        validateUserId(userId);
+
+        withCart(userId, cart -> {
+            cart.lines.clear();
+            cart.version++;
+            changeLog.append(CartChangeLog.Change.clear(userId));
+            return null;
+        });
+    }
+
+    /**
+     * Validates the whole batch against a copy of the cart first, so a failing operation
+     * leaves the cart untouched, then logs only the lines that actually changed.
+     */
+    @Override
+    public CartDTO applyBatch(Long userId, List<CartBatchRequest.Operation> operations) {
+        log.info("Applying {} cart operations for user: {}", operations == null ? 0 : operations.size(), userId);
+        validateUserId(userId);
+        if (operations == null || operations.isEmpty()) {
+            throw new RuntimeException("Operations cannot be empty");
+        }
+        if (operations.size() > MAX_BATCH_OPERATIONS) {
+            throw new RuntimeException("Cannot apply more than " + MAX_BATCH_OPERATIONS + " operations at once");
+        }
+
+        return withCart(userId, cart -> {
+            Map<Long, Line> lines = new LinkedHashMap<>(cart.lines);
+            for (CartBatchRequest.Operation operation : operations) {
+                if (operation.getType() == null) {
+                    throw new RuntimeException("Operation type cannot be null");
+                }
+                switch (operation.getType()) {
+                    case ADD -> {
+                        validateQuantity(operation.getQuantity());
+                        CatalogGame game = getAvailableGame(operation.getGameId());
+                        Line line = lines.get(game.id());
+                        lines.put(game.id(), line != null
+                                ? new Line(line.quantity() + operation.getQuantity(), line.price())
+                                : new Line(operation.getQuantity(), itemPrice(game)));
+                    }
+                    case UPDATE, REMOVE -> {
+                        Line line = operation.getItemId() != null ? lines.get(operation.getItemId()) : null;
+                        if (line == null) {
+                            throw new RuntimeException("Cart item not found with id: " + operation.getItemId());
+                        }
+                        Integer quantity = operation.getType() == CartBatchRequest.Type.REMOVE ? null : operation.getQuantity();
+                        if (quantity == null || quantity <= 0) {
+                            lines.remove(operation.getItemId());
+                        } else {
+                            lines.put(operation.getItemId(), new Line(quantity, line.price()));
+                        }
+                    }
+                }
+            }
+
+            List<Long> changed = new ArrayList<>();
+            lines.forEach((gameId, line) -> {
+                if (!line.equals(cart.lines.get(gameId))) {
+                    changed.add(gameId);
+                }
+            });
+            cart.lines.keySet().stream().filter(gameId -> !lines.containsKey(gameId)).forEach(changed::add);
+            for (Long gameId : changed) {
+                Line line = lines.get(gameId);
+                setLine(cart, gameId, line != null ? line.quantity() : 0,
+                        line != null ? line.price() : cart.lines.get(gameId).price());
+            }
+            return convertToDTO(cart);
+        });
+    }
+
+    /**
+     * Takes only this cart's flush lock, so checkout waits at most for one chunk of a running
+     * {@link #flushAll()} that happens to hold it. That is still safe for log cleanup:
+     * flushAll takes the same lock and checks the cart again before counting it as written.
+     */
+    @Override
+    public void flushPendingChanges(Long userId) {
+        UserCart cart = carts.get(userId);
+        if (cart == null) {
+            return;
+        }
+        ownerLock.ensureHeld();
+        cart.flushLock.lock();
+        try {
+            dropMissingGames(List.of(cart));
+            Snapshot snapshot = snapshot(cart);
+            if (snapshot != null) {
+                markFlushed(snapshot, writeTransaction.execute(status -> writeCart(snapshot)));
+            }
+        } finally {
+            cart.flushLock.unlock();
+        }
+    }
+
+    @Override
+    public boolean isGameInUserCart(Long userId, Long gameId) {
+        validateUserId(userId);
+        if (gameId == null) {
+            throw new RuntimeException("Game ID cannot be null");
+        }
+        return withCart(userId, cart -> cart.lines.containsKey(gameId));
+    }
+
+    @Override
+    public int getCartItemCount(Long userId) {
+        validateUserId(userId);
+        return withCart(userId, cart -> cart.lines.size());
+    }
+
+    @Override
+    public BigDecimal getCartTotalPrice(Long userId) {
+        validateUserId(userId);
+        return withCart(userId, this::total);
+    }
+
+    @Override
+    public CartSummaryDTO getCartSummary(Long userId) {
+        validateUserId(userId);
+        return withCart(userId, cart -> new CartSummaryDTO(cart.lines.size(), total(cart), cart.version));
+    }
+
+    /**
+     * Cleans the buffered carts as well as the database, since a buffered line would write an
+     * inactive game back on the next flush.
+     */
+    @Override
+    public void cleanupInactiveGameItems() {
+        GameCatalogSnapshot catalog = gameService.getCatalogSnapshot();
+        for (UserCart cart : carts.values()) {
+            removeLines(cart, gameId -> catalog.findById(gameId).isEmpty(), "inactive");
+        }
+        flushAll();
+        databaseCartService.cleanupInactiveGameItems();
+        evictClean(Duration.ZERO);
+    }
+
+    @Override
+    public void recalculateAllCartsTotals() {
+        flushAll();
+        databaseCartService.recalculateAllCartsTotals();
+    }
+
+    @Override
+    public List<Long> getUsersWithNonEmptyCarts() {
+        flushAll();
+        return databaseCartService.getUsersWithNonEmptyCarts();
+    }
+
+    /**
+     * Checkout empties the cart in the database after flushing it. Lines that still match
+     * what was flushed were bought and are dropped; lines changed since stay in the cart.
+     */
+    @TransactionalEventListener
+    public void onCartChanged(CartChangedEvent event) {
+        UserCart cart = carts.get(event.userId());
+        if (cart == null || event.itemCount() != 0) {
+            return;
+        }
+        cart.lock.lock();
+        try {
+            cart.flushed.forEach((gameId, line) -> {
+                if (line.equals(cart.lines.get(gameId))) {
+                    cart.lines.remove(gameId);
+                    changeLog.append(CartChangeLog.Change.set(cart.userId, gameId, 0, line.price()));
+                }
+            });
+            cart.flushed = Map.of();
+            cart.version++;
+            if (cart.lines.isEmpty()) {
+                cart.flushedVersion = cart.version;
+            }
+        } finally {
+            cart.lock.unlock();
+        }
+    }
+
+    /**
+     * Writes dirty carts in chunks, one transaction per chunk. A chunk that fails is retried
+     * cart by cart, so one bad cart cannot hold back the others. Carts that still fail are
+     * re-logged in full, which lets the closed segments be deleted in every case.
+     */
+    @Scheduled(fixedDelayString = "${app.cart.write-behind.flush-interval-ms:5000}")
+    public void flushAll() {
+        flushLock.lock();
+        try {
+            ownerLock.ensureHeld();
+            List<Path> segments = changeLog.rotate();
+            List<UserCart> dirty = carts.values().stream()
+                    .filter(UserCart::isDirty)
+                    .toList();
+            List<UserCart> failed = new ArrayList<>();
+            for (int from = 0; from < dirty.size(); from += FLUSH_CHUNK_SIZE) {
+                failed.addAll(flush(dirty.subList(from, Math.min(from + FLUSH_CHUNK_SIZE, dirty.size()))));
+            }
+            failed.forEach(this::checkpoint);
+            changeLog.delete(segments);
+            evictClean(idleEviction);
+        } catch (RuntimeException e) {
+            log.error("Failed to flush carts, keeping the change log for the next attempt", e);
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    /**
+     * Returns the carts that could not be written.
+     */
+    private List<UserCart> flush(List<UserCart> chunk) {
+        chunk.forEach(cart -> cart.flushLock.lock());
+        try {
+            dropMissingGames(chunk);
+            List<Snapshot> snapshots = chunk.stream()
+                    .map(this::snapshot)
+                    .filter(Objects::nonNull)
+                    .toList();
+            if (snapshots.isEmpty()) {
+                return List.of();
+            }
+
+            try {
+                List<Long> cartIds = writeTransaction.execute(status -> snapshots.stream().map(this::writeCart).toList());
+                for (int i = 0; i < snapshots.size(); i++) {
+                    markFlushed(snapshots.get(i), cartIds.get(i));
+                }
+                log.debug("Flushed {} carts", snapshots.size());
+                return List.of();
+            } catch (RuntimeException e) {
+                log.warn("Flushing {} carts together failed, retrying them one by one", snapshots.size(), e);
+            }
+
+            List<UserCart> failed = new ArrayList<>();
+            for (Snapshot snapshot : snapshots) {
+                try {
+                    markFlushed(snapshot, writeTransaction.execute(status -> writeCart(snapshot)));
+                } catch (RuntimeException e) {
+                    flushFailures.increment();
+                    if (++snapshot.cart().failedFlushes < MAX_FAILED_FLUSHES) {
+                        log.error("Failed to flush the cart of user {}, keeping it in memory", snapshot.cart().userId, e);
+                        failed.add(snapshot.cart());
+                    } else {
+                        drop(snapshot.cart(), e);
+                    }
+                }
+            }
+            return failed;
+        } finally {
+            chunk.forEach(cart -> cart.flushLock.unlock());
+        }
+    }
+
+    private Snapshot snapshot(UserCart cart) {
+        cart.lock.lock();
+        try {
+            return cart.isDirty() ? new Snapshot(cart, new LinkedHashMap<>(cart.lines), cart.version) : null;
+        } finally {
+            cart.lock.unlock();
+        }
+    }
+
+    /**
+     * A {@code null} cart id means the user is gone, so the buffered cart is dropped.
+     */
+    private void markFlushed(Snapshot snapshot, Long cartId) {
+        UserCart cart = snapshot.cart();
+        cart.lock.lock();
+        try {
+            if (cartId == null) {
+                log.warn("Dropping the buffered cart of user {}, who no longer exists", cart.userId);
+                cart.evicted = true;
+                carts.remove(cart.userId, cart);
+                return;
+            }
+            cart.cartId = cartId;
+            cart.failedFlushes = 0;
+            cart.flushed = snapshot.lines();
+            cart.flushedVersion = snapshot.version();
+        } finally {
+            cart.lock.unlock();
+        }
+    }
+
+    /**
+     * Removes lines whose game row was deleted. Writing them would fail on the foreign key
+     * every time, so the cart could never be flushed.
+     */
+    private void dropMissingGames(List<UserCart> chunk) {
+        List<Long> gameIds = new ArrayList<>();
+        for (UserCart cart : chunk) {
+            cart.lock.lock();
+            try {
+                gameIds.addAll(cart.lines.keySet());
+            } finally {
+                cart.lock.unlock();
+            }
+        }
+        if (gameIds.isEmpty()) {
+            return;
+        }
+        Set<Long> existing = readTransaction.execute(status -> gameRepository.findExistingIds(gameIds));
+        if (existing.size() == new HashSet<>(gameIds).size()) {
+            return;
+        }
+        for (UserCart cart : chunk) {
+            removeLines(cart, gameId -> !existing.contains(gameId), "deleted");
+        }
+    }
+
+    private void removeLines(UserCart cart, Predicate<Long> remove, String reason) {
+        cart.lock.lock();
+        try {
+            if (cart.evicted) {
+                return;
+            }
+            List<Long> gameIds = cart.lines.keySet().stream().filter(remove).toList();
+            for (Long gameId : gameIds) {
+                setLine(cart, gameId, 0, cart.lines.get(gameId).price());
+            }
+            if (!gameIds.isEmpty()) {
+                log.info("Removed {} {} games {} from the cart of user {}", gameIds.size(), reason, gameIds, cart.userId);
+            }
+        } finally {
+            cart.lock.unlock();
+        }
+    }
+
+    /**
+     * Gives up on a cart that keeps failing, so it does not stay dirty in memory and retry
+     * forever. The user gets the last flushed cart back, and the log records that state so
+     * a replay after a crash does not bring the failing one back either.
+     */
+    private void drop(UserCart cart, RuntimeException cause) {
+        droppedCarts.increment();
+        log.error("Dropping the buffered cart of user {} after {} failed flushes", cart.userId, cart.failedFlushes, cause);
+        cart.lock.lock();
+        try {
+            cart.evicted = true;
+            carts.remove(cart.userId, cart);
+            logState(cart.userId, cart.flushed);
+        } finally {
+            cart.lock.unlock();
+        }
+    }
+
+    private void checkpoint(UserCart cart) {
+        cart.lock.lock();
+        try {
+            if (!cart.evicted) {
+                logState(cart.userId, cart.lines);
+            }
+        } finally {
+            cart.lock.unlock();
+        }
+    }
+
+    private void logState(Long userId, Map<Long, Line> lines) {
+        List<CartChangeLog.Change> changes = new ArrayList<>();
+        changes.add(CartChangeLog.Change.clear(userId));
+        lines.forEach((gameId, line) ->
+                changes.add(CartChangeLog.Change.set(userId, gameId, line.quantity(), line.price())));
+        changeLog.append(changes.toArray(CartChangeLog.Change[]::new));
+    }
+
+    /**
+     * Resolves the cart row on every write rather than trusting a cached id, since the cart
+     * may have been deleted together with its user in the meantime.
+     */
+    private Long writeCart(Snapshot snapshot) {
+        Long userId = snapshot.cart().userId;
+        Long cartId = cartRepository.findIdByUserId(userId).orElse(null);
+        BigDecimal total = total(snapshot.lines());
+
+        Cart cart;
+        if (cartId == null) {
+            if (!userRepository.existsById(userId)) {
+                return null;
+            }
+            cart = new Cart();
+            cart.setUser(userRepository.getReferenceById(userId));
+            cart.setTotalPrice(total);
+            cart.setUpdatedAt(LocalDateTime.now());
+            cart = cartRepository.save(cart);
+            cartId = cart.getId();
+        } else {
+            cartItemRepository.deleteByCartId(cartId);
+            cart = cartRepository.getReferenceById(cartId);
+        }
+
+        for (Map.Entry<Long, Line> entry : snapshot.lines().entrySet()) {
+            CartItem item = new CartItem();
+            item.setCart(cart);
+            item.setGame(gameRepository.getReferenceById(entry.getKey()));
+            item.setQuantity(entry.getValue().quantity());
+            item.setPrice(entry.getValue().price());
+            cartItemRepository.save(item);
+        }
+        cartRepository.updateTotal(cartId, total, LocalDateTime.now());
+        return cartId;
+    }
+
+    private void evictClean(Duration idleFor) {
+        long cutoff = System.currentTimeMillis() - idleFor.toMillis();
+        for (UserCart cart : carts.values()) {
+            if (cart.lastAccess > cutoff || !cart.lock.tryLock()) {
+                continue;
+            }
+            try {
+                if (!cart.isDirty() && cart.lastAccess <= cutoff) {
+                    cart.evicted = true;
+                    carts.remove(cart.userId, cart);
+                }
+            } finally {
+                cart.lock.unlock();
+            }
+        }
+    }
+
+    private <T> T withCart(Long userId, Function<UserCart, T> action) {
+        while (true) {
+            UserCart cart = cart(userId);
+            cart.lock.lock();
+            try {
+                if (cart.evicted) {
+                    continue;
+                }
+                cart.lastAccess = System.currentTimeMillis();
+                return action.apply(cart);
+            } finally {
+                cart.lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Loads outside the map's compute so the query never runs while a map bin is locked.
+     */
+    private UserCart cart(Long userId) {
+        UserCart cart = carts.get(userId);
+        if (cart != null) {
+            return cart;
+        }
+        UserCart loaded = readTransaction.execute(status -> load(userId));
+        UserCart existing = carts.putIfAbsent(userId, loaded);
+        return existing != null ? existing : loaded;
+    }
+
+    private UserCart load(Long userId) {
+        UserCart cart = new UserCart(userId);
+        cartRepository.findByUserIdWithItems(userId).ifPresent(stored -> {
+            cart.cartId = stored.getId();
+            for (CartItem item : stored.getItems()) {
+                cart.lines.put(item.getGame().getId(), new Line(item.getQuantity(), item.getPrice()));
+            }
+        });
+        cart.flushed = new LinkedHashMap<>(cart.lines);
+        return cart;
+    }
+
+    private void setLine(UserCart cart, Long gameId, int quantity, BigDecimal price) {
+        if (quantity > 0) {
+            cart.lines.put(gameId, new Line(quantity, price));
+        } else {
+            cart.lines.remove(gameId);
+        }
+        cart.version++;
+        changeLog.append(CartChangeLog.Change.set(cart.userId, gameId, quantity, price));
+    }
+
+    private Line getLine(UserCart cart, Long itemId) {
+        Line line = itemId != null ? cart.lines.get(itemId) : null;
+        if (line == null) {
+            throw new RuntimeException("Cart item not found with id: " + itemId);
+        }
+        return line;
+    }
+
+    private CatalogGame getAvailableGame(Long gameId) {
+        if (gameId == null) {
+            throw new RuntimeException("Game ID cannot be null");
+        }
+        return gameService.getCatalogSnapshot().findById(gameId)
+                .orElseThrow(() -> new RuntimeException("Game not found or not available: " + gameId));
+    }
+
+    private BigDecimal itemPrice(CatalogGame game) {
+        return (game.discountPrice() != null && game.discountPrice().compareTo(BigDecimal.ZERO) > 0)
+                ? game.discountPrice()
+                : game.price();
+    }
+
+    private BigDecimal total(UserCart cart) {
+        return total(cart.lines);
+    }
+
+    private BigDecimal total(Map<Long, Line> lines) {
+        return lines.values().stream()
+                .map(line -> line.price().multiply(BigDecimal.valueOf(line.quantity())))
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+    }
+
+    private void validateUserId(Long userId) {
+        if (userId == null) {
+            throw new RuntimeException("User ID cannot be null");
+        }
+    }
+
+    private void validateQuantity(Integer quantity) {
+        if (quantity == null || quantity <= 0) {
+            throw new RuntimeException("Quantity must be positive");
+        }
+        if (quantity > 100) {
+            throw new RuntimeException("Quantity cannot exceed 100");
+        }
+    }
+
+    private CartDTO convertToDTO(UserCart cart) {
+        GameCatalogSnapshot catalog = gameService.getCatalogSnapshot();
+        List<CartItemDTO> items = new ArrayList<>(cart.lines.size());
+        cart.lines.forEach((gameId, line) -> {
+            CartItemDTO item = new CartItemDTO();
+            item.setId(gameId);
+            item.setGameId(gameId);
+            item.setQuantity(line.quantity());
+            item.setPrice(line.price());
+            item.setSubtotal(line.price().multiply(BigDecimal.valueOf(line.quantity())));
+            Optional<CatalogGame> active = catalog.findById(gameId);
+            if (active.isPresent()) {
+                item.setGameTitle(active.get().title());
+                item.setImageUrl(active.get().imageUrl());
+                item.setPlatform(active.get().platform());
+                item.setDeveloper(active.get().developer());
+            } else {
+                gameRepository.findById(gameId).ifPresent(game -> {
+                    item.setGameTitle(game.getTitle());
+                    item.setImageUrl(game.getImageUrl());
+                    item.setPlatform(game.getPlatform());
+                    item.setDeveloper(game.getDeveloper());
+                });
+            }
+            items.add(item);
+        });
+
+        CartDTO dto = new CartDTO();
+        dto.setId(cart.cartId);
+        dto.setUserId(cart.userId);
+        dto.setTotalPrice(total(cart));
+        dto.setItems(items);
+        return dto;
+    }
+
+    private record Line(int quantity, BigDecimal price) {
+    }
+
+    private record Snapshot(UserCart cart, Map<Long, Line> lines, long version) {
+    }
+
+    /**
+     * {@code lock} guards the fields; {@code flushLock} is held while the cart is written,
+     * so two flushes of one cart never race each other to the database. It also guards
+     * {@code failedFlushes}, which only flushes touch.
+     */
+    private static final class UserCart {
+        private final ReentrantLock lock = new ReentrantLock();
+        private final ReentrantLock flushLock = new ReentrantLock();
+        private final Long userId;
+        private final Map<Long, Line> lines = new LinkedHashMap<>();
+        private Map<Long, Line> flushed = Map.of();
+        private Long cartId;
+        private long version;
+        private long flushedVersion;
+        private long lastAccess = System.currentTimeMillis();
+        private int failedFlushes;
+        private boolean evicted;
+
+        private UserCart(Long userId) {
+            this.userId = Objects.requireNonNull(userId);
+        }
+
+        private boolean isDirty() {
+            return version != flushedVersion;
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.example.gamestore.service;
+
+import lombok.extern.slf4j.Slf4j;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Postgres session advisory lock that makes one application instance the owner of all
+ * write-behind carts. The lock lives as long as its dedicated, unpooled connection, so it is
+ * released when the owner stops or loses its connection, and can then be taken by another
+ * instance.
+ */
+@Slf4j
+final class WriteBehindOwnerLock implements AutoCloseable {
+
+    /**
+     * "gamecart" in ASCII; any constant works as long as every instance uses the same one.
+     */
+    private static final long LOCK_KEY = 0x67616D6563617274L;
+    private static final int VALIDATION_TIMEOUT_SECONDS = 2;
+
+    private final DataSource dataSource;
+    private Connection connection;
+
+    WriteBehindOwnerLock(DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    /**
+     * Returns normally only while this instance holds the lock, reacquiring it after a lost
+     * connection when no other instance took it in the meantime.
+     */
+    synchronized void ensureHeld() {
+        try {
+            if (connection != null && connection.isValid(VALIDATION_TIMEOUT_SECONDS)) {
+                return;
+            }
+            closeConnection();
+            Connection candidate = dataSource.getConnection();
+            if (!tryLock(candidate)) {
+                candidate.close();
+                throw new IllegalStateException("Another instance owns the write-behind cart store; "
+                        + "app.cart.write-behind.enabled requires a single instance");
+            }
+            connection = candidate;
+            log.info("Acquired ownership of the write-behind cart store");
+        } catch (SQLException e) {
+            closeConnection();
+            throw new IllegalStateException("Could not verify ownership of the write-behind cart store", e);
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        closeConnection();
+    }
+
+    private boolean tryLock(Connection candidate) throws SQLException {
+        candidate.setAutoCommit(true);
+        try (PreparedStatement statement = candidate.prepareStatement("SELECT pg_try_advisory_lock(?)")) {
+            statement.setLong(1, LOCK_KEY);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                return resultSet.next() && resultSet.getBoolean(1);
+            }
+        }
+    }
+
+    private void closeConnection() {
+        if (connection == null) {
+            return;
+        }
+        try {
+            // Ending the session releases the lock
+            connection.close();
+        } catch (SQLException e) {
+            log.warn("Failed to release ownership of the write-behind cart store cleanly", e);
+        } finally {
+            connection = null;
+        }
+    }
+}
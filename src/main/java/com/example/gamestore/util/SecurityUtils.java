@@ -2,6 +2,7 @@ package com.example.gamestore.util;
 
 import com.example.gamestore.model.User;
 import com.example.gamestore.repository.UserRepository;
+import com.example.gamestore.service.UserDetailsImpl;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -23,6 +24,11 @@ public class SecurityUtils {
     }
 
     public Long getCurrentUserId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof UserDetailsImpl userDetails) {
+            return userDetails.getId();
+        }
+
         String username = getCurrentUsername();
         if (username != null) {
             User user = userRepository.findByUsername(username)
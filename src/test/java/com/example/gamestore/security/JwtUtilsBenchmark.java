@@ -0,0 +1,88 @@
+package com.example.gamestore.security;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.security.Key;
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request cost of reading a Bearer token. {@code rebuildKeyAndParserPerCall} is what
+ * {@link JwtUtils} used to do: validate, then parse again for the subject, each time with a
+ * freshly decoded key and a new parser. {@code parseAndValidate} is the shared key and parser.
+ * <p>
+ * Not run by the test suite. Start {@link #main} from the IDE, or add {@code -prof gc} to the
+ * options to see the allocation per call as well.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class JwtUtilsBenchmark {
+
+    private static final String SECRET = "mySecretKey1234567890123456789012345678901234567890";
+
+    private JwtUtils jwtUtils;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtUtils = new JwtUtils();
+        ReflectionTestUtils.setField(jwtUtils, "jwtSecret", SECRET);
+        jwtUtils.init();
+
+        token = Jwts.builder()
+                .setSubject("benchmark-user")
+                .claim(JwtUtils.USER_ID_CLAIM, 42L)
+                .claim(JwtUtils.EMAIL_CLAIM, "benchmark@example.com")
+                .claim(JwtUtils.ROLES_CLAIM, List.of("ROLE_USER"))
+                .setIssuedAt(new Date())
+                .setExpiration(new Date(System.currentTimeMillis() + TimeUnit.DAYS.toMillis(1)))
+                .signWith(Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET)), SignatureAlgorithm.HS256)
+                .compact();
+    }
+
+    @Benchmark
+    public String rebuildKeyAndParserPerCall() {
+        Jwts.parserBuilder().setSigningKey(key()).build().parseClaimsJws(token);
+        return Jwts.parserBuilder().setSigningKey(key()).build().parseClaimsJws(token).getBody().getSubject();
+    }
+
+    @Benchmark
+    public Optional<Claims> parseAndValidate() {
+        return jwtUtils.parseAndValidate(token);
+    }
+
+    private static Key key() {
+        return Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET));
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(JwtUtilsBenchmark.class.getSimpleName())
+                .build())
+                .run();
+    }
+}
@@ -0,0 +1,111 @@
+package com.example.gamestore.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CartChangeLogTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void replaysChangesAcrossSegmentsInOrder() {
+        try (CartChangeLog log = new CartChangeLog(directory, false)) {
+            log.append(CartChangeLog.Change.set(1L, 10L, 2, new BigDecimal("19.99")));
+            log.rotate();
+            log.append(CartChangeLog.Change.clear(1L), CartChangeLog.Change.set(1L, 11L, 1, new BigDecimal("5.00")));
+        }
+
+        assertThat(replay()).containsExactly(
+                CartChangeLog.Change.set(1L, 10L, 2, new BigDecimal("19.99")),
+                CartChangeLog.Change.clear(1L),
+                CartChangeLog.Change.set(1L, 11L, 1, new BigDecimal("5.00")));
+    }
+
+    @Test
+    void rotateReturnsClosedSegmentsAndDeleteRemovesOnlyThose() throws IOException {
+        try (CartChangeLog log = new CartChangeLog(directory, false)) {
+            log.append(CartChangeLog.Change.set(1L, 10L, 1, BigDecimal.TEN));
+            List<Path> closed = log.rotate();
+            log.append(CartChangeLog.Change.set(2L, 20L, 3, BigDecimal.ONE));
+
+            assertThat(closed).hasSize(1);
+            log.delete(closed);
+
+            assertThat(closed).allSatisfy(path -> assertThat(path).doesNotExist());
+            assertThat(segmentFiles()).hasSize(1);
+        }
+
+        assertThat(replay()).containsExactly(CartChangeLog.Change.set(2L, 20L, 3, BigDecimal.ONE));
+    }
+
+    @Test
+    void negativeQuantityIsLoggedAsRemoval() {
+        try (CartChangeLog log = new CartChangeLog(directory, false)) {
+            log.append(CartChangeLog.Change.set(1L, 10L, -4, BigDecimal.TEN));
+        }
+
+        assertThat(replay()).containsExactly(CartChangeLog.Change.set(1L, 10L, 0, BigDecimal.TEN));
+    }
+
+    @Test
+    void skipsIncompleteTrailingRecord() throws IOException {
+        Files.writeString(directory.resolve("cart-changes-1.log"),
+                "SET 1 10 2 19.99\nSET 1 11 3 4.9", StandardCharsets.UTF_8);
+
+        assertThat(replay()).containsExactly(CartChangeLog.Change.set(1L, 10L, 2, new BigDecimal("19.99")));
+    }
+
+    @Test
+    void appendsAfterRestartGoToNewSegment() throws IOException {
+        Path torn = directory.resolve("cart-changes-1.log");
+        Files.writeString(torn, "SET 1 10 2 19.99\nCLE", StandardCharsets.UTF_8);
+
+        try (CartChangeLog log = new CartChangeLog(directory, false)) {
+            log.replay(change -> {
+            });
+            log.append(CartChangeLog.Change.clear(2L));
+        }
+
+        assertThat(Files.readString(torn, StandardCharsets.UTF_8)).isEqualTo("SET 1 10 2 19.99\nCLE");
+        assertThat(replay()).containsExactly(
+                CartChangeLog.Change.set(1L, 10L, 2, new BigDecimal("19.99")),
+                CartChangeLog.Change.clear(2L));
+    }
+
+    @Test
+    void failsOnCorruptRecordFollowedByOthers() throws IOException {
+        Files.writeString(directory.resolve("cart-changes-1.log"),
+                "SET 1 10 2 19.99\nSET 1 x\nCLEAR 1\n", StandardCharsets.UTF_8);
+
+        assertThatThrownBy(this::replay)
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("line 2");
+    }
+
+    private List<CartChangeLog.Change> replay() {
+        List<CartChangeLog.Change> changes = new ArrayList<>();
+        try (CartChangeLog log = new CartChangeLog(directory, false)) {
+            log.replay(changes::add);
+        }
+        return changes;
+    }
+
+    private List<Path> segmentFiles() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.toList();
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package com.example.gamestore.service;
+
+import com.example.gamestore.model.Cart;
+import com.example.gamestore.model.Game;
+import com.example.gamestore.model.User;
+import com.example.gamestore.repository.CartRepository;
+import com.example.gamestore.repository.GameRepository;
+import com.example.gamestore.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Hammers one cart line from many threads. Needs the Postgres database configured in
+ * application.properties, so it only runs with {@code GAMESTORE_DB_TESTS=true}.
+ */
+@SpringBootTest(properties = "app.cart.write-behind.enabled=false")
+@EnabledIfEnvironmentVariable(named = "GAMESTORE_DB_TESTS", matches = "true")
+class CartUpsertConcurrencyTest {
+
+    private static final int THREADS = 8;
+    private static final int ADDS_PER_THREAD = 10;
+    private static final BigDecimal PRICE = new BigDecimal("12.50");
+
+    @Autowired
+    private CartServiceImpl cartService;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private GameRepository gameRepository;
+    @Autowired
+    private CartRepository cartRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private User user;
+    private Game game;
+    private Cart cart;
+
+    @BeforeEach
+    void setUp() {
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+        user = new User();
+        user.setUsername("upsert-" + suffix);
+        user.setEmail("upsert-" + suffix + "@example.com");
+        user.setPassword("not-a-real-hash");
+        user = userRepository.save(user);
+
+        game = new Game();
+        game.setTitle("Upsert test " + suffix);
+        game.setPrice(PRICE);
+        game = gameRepository.save(game);
+
+        cart = new Cart();
+        cart.setUser(user);
+        cart = cartRepository.save(cart);
+    }
+
+    @AfterEach
+    void tearDown() {
+        cartRepository.deleteById(cart.getId());
+        userRepository.deleteById(user.getId());
+        gameRepository.deleteById(game.getId());
+    }
+
+    @Test
+    void concurrentAddsOfOneGameEndInOneLineWithEveryQuantity() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> results = new ArrayList<>();
+        try {
+            for (int t = 0; t < THREADS; t++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < ADDS_PER_THREAD; i++) {
+                        cartService.addItemToCart(user.getId(), game.getId(), 1);
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> result : results) {
+                result.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        int expected = THREADS * ADDS_PER_THREAD;
+        List<Integer> quantities = jdbcTemplate.queryForList(
+                "SELECT quantity FROM cart_items WHERE cart_id = ? AND game_id = ?",
+                Integer.class, cart.getId(), game.getId());
+        assertThat(quantities).containsExactly(expected);
+
+        BigDecimal total = jdbcTemplate.queryForObject(
+                "SELECT total_price FROM carts WHERE id = ?", BigDecimal.class, cart.getId());
+        assertThat(total).isEqualByComparingTo(PRICE.multiply(BigDecimal.valueOf(expected)));
+    }
+}
@@ -0,0 +1,122 @@
+package com.example.gamestore.service;
+
+import com.example.gamestore.dto.GameDTO;
+import com.example.gamestore.dto.GameFilterRequest;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class GameFacetIndexTest {
+
+    private final GameCatalogSnapshot snapshot = GameCatalogSnapshot.of(1, List.of(
+            game(1L, "PC", "Shooter", "19.99", null, 1993),
+            game(2L, "Switch", "Platformer", "19.99", "9.99", 2018),
+            game(3L, "PC", "Roguelike", "24.99", null, 2020),
+            game(4L, "PC", "Puzzle", "10.00", null, 2011),
+            game(5L, "Switch", "Adventure", "60.00", null, 2017),
+            game(6L, "PC", "Puzzle", "19.99", "14.99", 2008)));
+    private final GameFacetIndex index = GameFacetIndex.build(snapshot);
+
+    @Test
+    void bucketsPricesByLowerBoundInclusive() {
+        GameFacetIndex.Result result = index.filter(new GameFilterRequest());
+
+        assertThat(ids(result.matches())).containsExactly(1L, 2L, 3L, 4L, 5L, 6L);
+        assertThat(result.priceBucketCounts())
+                .containsEntry("0-10", 1)
+                .containsEntry("10-20", 3)
+                .containsEntry("20-40", 1)
+                .containsEntry("40-60", 0)
+                .containsEntry("60+", 1);
+        assertThat(result.discountedCount()).isEqualTo(2);
+    }
+
+    @Test
+    void facetCountsIgnoreTheirOwnFilter() {
+        GameFilterRequest request = new GameFilterRequest();
+        request.setPlatforms(List.of("PC"));
+
+        GameFacetIndex.Result result = index.filter(request);
+
+        assertThat(ids(result.matches())).containsExactly(1L, 3L, 4L, 6L);
+        assertThat(result.platformCounts()).containsEntry("PC", 4).containsEntry("Switch", 2);
+        assertThat(result.genreCounts()).containsOnlyKeys("Shooter", "Roguelike", "Puzzle");
+        assertThat(result.genreCounts()).containsEntry("Puzzle", 2);
+        assertThat(result.priceBucketCounts()).containsEntry("0-10", 0).containsEntry("10-20", 3);
+        assertThat(result.discountedCount()).isEqualTo(1);
+    }
+
+    @Test
+    void discountCountIgnoresTheDiscountFilter() {
+        GameFilterRequest request = new GameFilterRequest();
+        request.setGenres(List.of("Puzzle"));
+        request.setDiscounted(true);
+
+        GameFacetIndex.Result result = index.filter(request);
+
+        assertThat(ids(result.matches())).containsExactly(6L);
+        assertThat(result.genreCounts()).containsOnlyKeys("Platformer", "Puzzle");
+        assertThat(result.discountedCount()).isEqualTo(1);
+    }
+
+    @Test
+    void priceAndYearRangesAreInclusive() {
+        GameFilterRequest prices = new GameFilterRequest();
+        prices.setMinPrice(BigDecimal.TEN);
+        prices.setMaxPrice(new BigDecimal("19.99"));
+        assertThat(ids(index.filter(prices).matches())).containsExactly(1L, 4L, 6L);
+
+        GameFilterRequest years = new GameFilterRequest();
+        years.setReleaseYearFrom(2011);
+        years.setReleaseYearTo(2018);
+        assertThat(ids(index.filter(years).matches())).containsExactly(2L, 4L, 5L);
+    }
+
+    @Test
+    void matchingTreatsMissingArgumentsAsNoConstraint() {
+        assertThat(ids(index.matching(null, null, null))).containsExactly(1L, 2L, 3L, 4L, 5L, 6L);
+        assertThat(ids(index.matching("Puzzle", "PC", null))).containsExactly(4L, 6L);
+        assertThat(ids(index.matching(null, "PC", List.of(1L, 2L, 99L)))).containsExactly(1L);
+        assertThat(ids(index.matching("Racing", null, null))).isEmpty();
+    }
+
+    @Test
+    void inOrderWalksMatchesInSortOrder() {
+        List<CatalogGame> byPrice = new ArrayList<>(snapshot.getGames());
+        byPrice.sort(Comparator.comparing(CatalogGame::finalPrice).thenComparing(CatalogGame::id));
+
+        BitSet ordered = index.inOrder(index.matching(null, "PC", null), index.ranks(byPrice));
+
+        List<Long> ids = new ArrayList<>();
+        for (int rank = ordered.nextSetBit(0); rank >= 0; rank = ordered.nextSetBit(rank + 1)) {
+            ids.add(byPrice.get(rank).id());
+        }
+        assertThat(ids).containsExactly(4L, 6L, 1L, 3L);
+    }
+
+    private List<Long> ids(BitSet matches) {
+        return matches.stream().mapToObj(position -> snapshot.getGames().get(position).id()).toList();
+    }
+
+    private static GameDTO game(Long id, String platform, String genre, String price, String discountPrice, int year) {
+        GameDTO game = new GameDTO();
+        game.setId(id);
+        game.setTitle("Game " + id);
+        game.setPlatform(platform);
+        game.setGenres(Set.of(genre));
+        game.setPrice(new BigDecimal(price));
+        game.setDiscountPrice(discountPrice != null ? new BigDecimal(discountPrice) : null);
+        game.setHasDiscount(discountPrice != null);
+        game.setFinalPrice(new BigDecimal(discountPrice != null ? discountPrice : price));
+        game.setReleaseDate(LocalDate.of(year, 1, 1));
+        return game;
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.gamestore.service;
+
+import com.example.gamestore.dto.GameDTO;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class GameSearchIndexTest {
+
+    private final GameSearchIndex index = GameSearchIndex.build(GameCatalogSnapshot.of(1, List.of(
+            game(1L, "The Witcher 3", "CD Projekt", "RPG", "Monster hunting in an open world"),
+            game(2L, "Witness", "Thekla", "Puzzle", "Island puzzles"),
+            game(3L, "Hollow Knight", "Team Cherry", "Metroidvania", "Explore a ruined kingdom"),
+            game(4L, "Shovel Knights", "Yacht Club", "Platformer", null))));
+
+    @Test
+    void tokenizesOnAnythingButLettersAndDigits() {
+        assertThat(GameSearchIndex.tokenize("Pokémon: Let's Go, Pikachu!"))
+                .containsExactly("pokémon", "let", "s", "go", "pikachu");
+        assertThat(GameSearchIndex.tokenize("Half-Life 2")).containsExactly("half", "life", "2");
+        assertThat(GameSearchIndex.tokenize(" -- ")).isEmpty();
+        assertThat(GameSearchIndex.tokenize(null)).isEmpty();
+    }
+
+    @Test
+    void partialWordsMatchAsPrefixes() {
+        assertThat(ids(index.search("wit"))).containsExactlyInAnyOrder(1L, 2L);
+        assertThat(ids(index.search("WITCH"))).containsExactly(1L);
+        assertThat(index.search("witchers")).isEmpty();
+    }
+
+    @Test
+    void everyTokenMustMatch() {
+        assertThat(ids(index.search("witcher open"))).containsExactly(1L);
+        assertThat(index.search("witcher puzzle")).isEmpty();
+        assertThat(index.matchingIds("open world")).containsExactly(1L);
+    }
+
+    @Test
+    void titlesContainingTheQueryStillMatch() {
+        assertThat(ids(index.search("itcher"))).containsExactly(1L);
+        assertThat(ids(index.search("low kni"))).containsExactly(3L);
+        assertThat(index.matchingIds("EL KNIGHT")).containsExactly(4L);
+    }
+
+    @Test
+    void tokenMatchesRankAboveTitleSubstrings() {
+        // "knight" is a word of both titles; "night" is only inside them
+        assertThat(ids(index.search("night"))).containsExactly(3L, 4L);
+        assertThat(ids(index.search("knight"))).containsExactly(3L, 4L);
+        assertThat(ids(index.search("he"))).containsExactly(1L);
+    }
+
+    @Test
+    void blankQueryMatchesEveryGame() {
+        assertThat(ids(index.search("  "))).containsExactly(3L, 4L, 1L, 2L);
+        assertThat(index.matchingIds(null)).containsExactlyInAnyOrder(1L, 2L, 3L, 4L);
+    }
+
+    @Test
+    void exactMatchesRankAbovePrefixMatches() {
+        assertThat(ids(index.search("knight"))).containsExactly(3L, 4L);
+    }
+
+    @Test
+    void titlesStartingWithTheQueryComeFirst() {
+        // Both titles match "wit" as a prefix with the same weight; only the bonus tells them apart
+        assertThat(ids(index.search("wit"))).containsExactly(2L, 1L);
+    }
+
+    private static List<Long> ids(List<CatalogGame> games) {
+        return games.stream().map(CatalogGame::id).toList();
+    }
+
+    private static GameDTO game(Long id, String title, String developer, String genre, String description) {
+        GameDTO game = new GameDTO();
+        game.setId(id);
+        game.setTitle(title);
+        game.setDeveloper(developer);
+        game.setGenres(Set.of(genre));
+        game.setDescription(description);
+        return game;
+    }
+}
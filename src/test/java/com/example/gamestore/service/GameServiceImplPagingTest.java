@@ -0,0 +1,104 @@
+package com.example.gamestore.service;
+
+import com.example.gamestore.dto.GameDTO;
+import com.example.gamestore.dto.GamePageDTO;
+import com.example.gamestore.dto.GamePageRequest;
+import com.example.gamestore.repository.GameRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+class GameServiceImplPagingTest {
+
+    private GameServiceImpl gameService;
+
+    @BeforeEach
+    void setUp() {
+        GameCatalogCache catalogCache = new GameCatalogCache();
+        catalogCache.get(() -> List.of(
+                game(1L, "Doom", "PC", "19.99", "Shooter"),
+                game(2L, "Celeste", "Switch", "9.99", "Platformer"),
+                game(3L, "Hades", "PC", "24.99", "Roguelike"),
+                game(4L, "Portal 2", "PC", "9.99", "Puzzle"),
+                game(5L, "Zelda", "Switch", "59.99", "Adventure"),
+                game(6L, "Braid", "PC", "14.99", "Puzzle")));
+        gameService = new GameServiceImpl(mock(GameRepository.class), catalogCache, mock(ApplicationEventPublisher.class));
+    }
+
+    @Test
+    void pagesResumeAfterTheCursorInBothDirections() {
+        assertThat(pageThrough("price", "asc", null)).containsExactly(2L, 4L, 6L, 1L, 3L, 5L);
+        assertThat(pageThrough("price", "desc", null)).containsExactly(5L, 3L, 1L, 6L, 4L, 2L);
+        assertThat(pageThrough("title", "asc", null)).containsExactly(6L, 2L, 1L, 3L, 4L, 5L);
+        assertThat(pageThrough("id", "desc", null)).containsExactly(6L, 5L, 4L, 3L, 2L, 1L);
+    }
+
+    @Test
+    void filteredPagesWalkOnlyMatchingGames() {
+        assertThat(pageThrough("price", "asc", "PC")).containsExactly(4L, 6L, 1L, 3L);
+        assertThat(pageThrough("price", "desc", "PC")).containsExactly(3L, 1L, 6L, 4L);
+        assertThat(pageThrough("price", "asc", "Dreamcast")).isEmpty();
+    }
+
+    @Test
+    void lastPageHasNoCursor() {
+        GamePageRequest request = new GamePageRequest();
+        request.setSize(6);
+
+        GamePageDTO page = gameService.getGamePage(request);
+
+        assertThat(page.getItems()).hasSize(6);
+        assertThat(page.isHasMore()).isFalse();
+        assertThat(page.getNextCursor()).isNull();
+    }
+
+    @Test
+    void gamesAreHandedOutAsCopies() {
+        GameDTO game = gameService.getGameById(1L);
+        game.setTitle("Changed");
+        game.getGenres().add("Changed");
+        gameService.getGamePage(new GamePageRequest()).getItems().get(0).setPrice(BigDecimal.ZERO);
+
+        GameDTO reloaded = gameService.getGameById(1L);
+        assertThat(reloaded.getTitle()).isEqualTo("Doom");
+        assertThat(reloaded.getGenres()).containsExactly("Shooter");
+        assertThat(reloaded.getPrice()).isEqualByComparingTo(new BigDecimal("19.99"));
+    }
+
+    private List<Long> pageThrough(String sort, String direction, String platform) {
+        List<Long> ids = new ArrayList<>();
+        String cursor = null;
+        do {
+            GamePageRequest request = new GamePageRequest();
+            request.setSort(sort);
+            request.setDirection(direction);
+            request.setPlatform(platform);
+            request.setCursor(cursor);
+            request.setSize(2);
+
+            GamePageDTO page = gameService.getGamePage(request);
+            page.getItems().forEach(game -> ids.add(game.getId()));
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+        return ids;
+    }
+
+    static GameDTO game(Long id, String title, String platform, String price, String genre) {
+        GameDTO game = new GameDTO();
+        game.setId(id);
+        game.setTitle(title);
+        game.setPlatform(platform);
+        game.setPrice(new BigDecimal(price));
+        game.setFinalPrice(new BigDecimal(price));
+        game.setGenres(Set.of(genre));
+        return game;
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.gamestore.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class GameSortTest {
+
+    @ParameterizedTest
+    @EnumSource(GameSort.class)
+    void cursorRoundTripLandsOnTheSameGameInBothDirections(GameSort sort) {
+        CatalogGame game = game(42L, "The Witcher 3", new BigDecimal("29.99"), LocalDate.of(2015, 5, 19));
+
+        for (boolean descending : new boolean[]{false, true}) {
+            CatalogGame probe = sort.decodeCursor(sort.encodeCursor(game, descending), descending);
+
+            assertThat(probe.id()).isEqualTo(42L);
+            assertThat(sort.comparator().compare(probe, game)).isEqualTo(0);
+        }
+    }
+
+    @ParameterizedTest
+    @EnumSource(GameSort.class)
+    void cursorRoundTripKeepsMissingSortKeys(GameSort sort) {
+        CatalogGame game = game(7L, null, null, null);
+
+        CatalogGame probe = sort.decodeCursor(sort.encodeCursor(game, false), false);
+
+        assertThat(sort.comparator().compare(probe, game)).isEqualTo(0);
+    }
+
+    @Test
+    void titleCursorSurvivesSeparatorsInTheTitle() {
+        CatalogGame game = game(3L, "Left|Right: A|B", BigDecimal.TEN, null);
+
+        CatalogGame probe = GameSort.TITLE.decodeCursor(GameSort.TITLE.encodeCursor(game, true), true);
+
+        assertThat(probe.title()).isEqualTo("Left|Right: A|B");
+    }
+
+    @Test
+    void cursorIsRejectedForAnotherSortOrDirection() {
+        CatalogGame game = game(1L, "Doom", BigDecimal.ONE, null);
+        String cursor = GameSort.PRICE.encodeCursor(game, false);
+
+        assertThatThrownBy(() -> GameSort.TITLE.decodeCursor(cursor, false))
+                .hasMessageContaining("Invalid cursor");
+        assertThatThrownBy(() -> GameSort.PRICE.decodeCursor(cursor, true))
+                .hasMessageContaining("Invalid cursor");
+        assertThatThrownBy(() -> GameSort.PRICE.decodeCursor("not base64 at all!", false))
+                .hasMessageContaining("Invalid cursor");
+    }
+
+    @Test
+    void parsesSortNamesLeniently() {
+        assertThat(GameSort.from(null)).isEqualTo(GameSort.ID);
+        assertThat(GameSort.from(" ")).isEqualTo(GameSort.ID);
+        assertThat(GameSort.from("price")).isEqualTo(GameSort.PRICE);
+        assertThat(GameSort.from("release-date")).isEqualTo(GameSort.RELEASE_DATE);
+        assertThat(GameSort.from("RELEASE_DATE")).isEqualTo(GameSort.RELEASE_DATE);
+        assertThat(GameSort.from("releaseDate")).isEqualTo(GameSort.RELEASE_DATE);
+        assertThatThrownBy(() -> GameSort.from("rating")).hasMessageContaining("Invalid sort");
+    }
+
+    @Test
+    void equalKeysAreOrderedById() {
+        CatalogGame first = game(1L, "Same", BigDecimal.TEN, null);
+        CatalogGame second = game(2L, "same", BigDecimal.TEN, null);
+
+        assertThat(GameSort.PRICE.comparator().compare(first, second)).isNegative();
+        assertThat(GameSort.TITLE.comparator().compare(second, first)).isPositive();
+    }
+
+    private static CatalogGame game(Long id, String title, BigDecimal price, LocalDate releaseDate) {
+        return new CatalogGame(id, title, null, null, null, releaseDate, null, null, price, null, null, price, false, null);
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.gamestore.service;
+
+import com.example.gamestore.dto.GameDTO;
+import com.example.gamestore.dto.GameSuggestionDTO;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class GameSuggestionTrieTest {
+
+    private final GameSuggestionTrie trie = GameSuggestionTrie.build(GameCatalogSnapshot.of(1, List.of(
+            game(1L, "Portal", "Valve"),
+            game(2L, "Portal 2", "Valve"),
+            game(3L, "The Portal Chronicles", "Portal Games"),
+            game(4L, "Valveheart", "Indie Studio"))));
+
+    @Test
+    void ranksTitlesThenTitleWordsThenCompanies() {
+        assertThat(ids(trie.suggest("portal", 10))).containsExactly(1L, 2L, 3L);
+        assertThat(ids(trie.suggest("valve", 10))).containsExactly(4L, 1L, 2L);
+    }
+
+    @Test
+    void suggestsEachGameOnce() {
+        // Game 3 matches "portal" through a title word and its publisher
+        assertThat(ids(trie.suggest("port", 10))).containsExactly(1L, 2L, 3L);
+    }
+
+    @Test
+    void returnsAtMostTheBestSuggestions() {
+        List<GameDTO> games = new ArrayList<>();
+        for (long id = 1; id <= 12; id++) {
+            games.add(game(id, "Doom " + id, "id Software"));
+        }
+        GameSuggestionTrie doom = GameSuggestionTrie.build(GameCatalogSnapshot.of(1, games));
+
+        assertThat(doom.suggest("doom", 20)).hasSize(GameSuggestionTrie.MAX_SUGGESTIONS);
+        assertThat(ids(doom.suggest("doom", 3))).containsExactly(1L, 2L, 3L);
+        assertThat(ids(doom.suggest("doom 1", 10))).containsExactly(1L, 10L, 11L, 12L);
+    }
+
+    @Test
+    void normalizesCaseAndWhitespace() {
+        assertThat(ids(trie.suggest("  PORTAL 2 ", 10))).containsExactly(2L);
+        assertThat(ids(trie.suggest("the   portal", 10))).containsExactly(3L);
+    }
+
+    @Test
+    void blankOrUnknownPrefixSuggestsNothing() {
+        assertThat(trie.suggest(" ", 10)).isEmpty();
+        assertThat(trie.suggest(null, 10)).isEmpty();
+        assertThat(trie.suggest("zelda", 10)).isEmpty();
+    }
+
+    private static List<Long> ids(List<GameSuggestionDTO> suggestions) {
+        return suggestions.stream().map(GameSuggestionDTO::getId).toList();
+    }
+
+    private static GameDTO game(Long id, String title, String developer) {
+        GameDTO game = new GameDTO();
+        game.setId(id);
+        game.setTitle(title);
+        game.setDeveloper(developer);
+        return game;
+    }
+}